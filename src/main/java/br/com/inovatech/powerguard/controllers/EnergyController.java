@@ -1,6 +1,13 @@
 package br.com.inovatech.powerguard.controllers;
 
+import br.com.inovatech.powerguard.dtos.EnergyAggregateDTO;
+import br.com.inovatech.powerguard.dtos.EnergyConsumptionDTO;
 import br.com.inovatech.powerguard.dtos.EnergyDTO;
+import br.com.inovatech.powerguard.dtos.EnergyPageDTO;
+import br.com.inovatech.powerguard.dtos.EnergyRollupDTO;
+import br.com.inovatech.powerguard.services.EnergyAggregationService;
+import br.com.inovatech.powerguard.services.EnergyConsumptionService;
+import br.com.inovatech.powerguard.services.EnergyRollupService;
 import br.com.inovatech.powerguard.services.EnergyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -8,10 +15,16 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,27 +34,39 @@ public class EnergyController {
     @Autowired
     private EnergyService energyService;
 
-    @Operation(summary = "Finding all energy data from the last 24 hours", description = "Finding all energy data from the last 24 hours", tags = {"Energy"}, responses = {
+    @Autowired
+    private EnergyRollupService energyRollupService;
+
+    @Autowired
+    private EnergyConsumptionService energyConsumptionService;
+
+    @Autowired
+    private EnergyAggregationService energyAggregationService;
+
+    @Operation(summary = "Finding all energy data from the last 24 hours", description = "Finding all energy data from the last 24 hours, or only the readings after the since timestamp (epoch milliseconds)", tags = {"Energy"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = EnergyDTO.class)))),
             @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+            @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
     })
     @GetMapping
-    public Mono<ResponseEntity<List<EnergyDTO>>> findEnergyDataLast24Hours() {
-        return energyService.findEnergyDataLast24Hours();
+    public Mono<ResponseEntity<byte[]>> findEnergyDataLast24Hours(
+            @RequestParam(value = "since", required = false) Long since) {
+        return energyService.findEnergyDataLast24Hours(since);
     }
 
     @Operation(summary = "Finding all energy data history", description = "Finding all energy data history", tags = {"Energy"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = EnergyDTO.class)))),
             @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+            @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
     })
     @GetMapping(value = "/history")
-    public Mono<ResponseEntity<List<EnergyDTO>>> findAllEnergyDataHistory(
+    public Mono<ResponseEntity<byte[]>> findAllEnergyDataHistory(
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "30") int size,
             @RequestParam(value = "direction", defaultValue = "asc") String direction,
@@ -49,6 +74,93 @@ public class EnergyController {
         return energyService.findAllEnergyDataHistory(page, size, direction, orderBy);
     }
 
+    @Operation(summary = "Finding energy data history by cursor", description = "Finding energy data history with cursor (keyset) pagination ordered by creation date", tags = {"Energy"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = EnergyPageDTO.class))),
+            @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+            @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @GetMapping(value = "/history/cursor")
+    public Mono<ResponseEntity<byte[]>> findEnergyDataHistoryByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "30") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        return energyService.findEnergyDataHistoryByCursor(cursor, size, direction);
+    }
+
+    @Operation(summary = "Streaming energy data history", description = "Streams the energy data history as NDJSON or Server-Sent Events, without buffering the whole result", tags = {"Energy"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = {
+                    @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = EnergyDTO.class)),
+                    @Content(mediaType = "text/event-stream", schema = @Schema(implementation = EnergyDTO.class))}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @GetMapping(value = "/history/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<EnergyDTO> streamEnergyDataHistory(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        return energyService.streamEnergyDataHistory(from, to, direction);
+    }
+
+    @Operation(summary = "Streaming live energy data", description = "Pushing the building readings as Server-Sent Events as soon as they are ingested. Browsers may pass the JWT in the access_token query parameter", tags = {"Energy"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = EnergyDTO.class))),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<EnergyDTO>> streamLiveEnergyData() {
+        return energyService.streamLiveEnergyData();
+    }
+
+    @Operation(summary = "Finding energy rollups", description = "Finding min/max/avg/sum of the total power metrics per building, pre-aggregated by minute, quarter hour, hour or day", tags = {"Energy"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = EnergyRollupDTO.class)))),
+            @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @GetMapping(value = "/rollups")
+    public Mono<ResponseEntity<List<EnergyRollupDTO>>> findRollups(
+            @RequestParam(value = "granularity", defaultValue = "hour") String granularity,
+            @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return energyRollupService.findRollups(granularity, from, to);
+    }
+
+    @Operation(summary = "Aggregating energy data", description = "Aggregating the building readings in MongoDB into fixed-size buckets, computing the requested functions (avg, min, max, sum, count) for each requested metric", tags = {"Energy"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = EnergyAggregateDTO.class)))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @GetMapping(value = "/aggregate", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<EnergyAggregateDTO> aggregate(
+            @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "bucket", defaultValue = "1h") String bucket,
+            @RequestParam(value = "metrics", defaultValue = "potativatotal") List<String> metrics,
+            @RequestParam(value = "functions", defaultValue = "avg") List<String> functions) {
+        return energyAggregationService.aggregate(from, to, bucket, metrics, functions);
+    }
+
+    @Operation(summary = "Finding energy consumption", description = "Finding the active (kWh) and reactive (kVArh) energy consumed by the building in a day or month", tags = {"Energy"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = EnergyConsumptionDTO.class))),
+            @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+    })
+    @GetMapping(value = "/consumption")
+    public Mono<ResponseEntity<EnergyConsumptionDTO>> findConsumption(
+            @RequestParam(value = "period", defaultValue = "day") String period,
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return energyConsumptionService.findConsumption(period, date);
+    }
+
     @Operation(summary = "Finds a Energy Data By ID", description = "Finds a Energy Data By ID", tags = {"Energy"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = EnergyDTO.class))),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
@@ -1,6 +1,5 @@
 package br.com.inovatech.powerguard.domains;
 
-import br.com.inovatech.powerguard.infra.security.roles.UserRoles;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -37,11 +36,11 @@ public class UserDomain implements UserDetails {
     private String keyRequest;
 
     @Field(name = "user_roles")
-    private UserRoles userRoles;
+    private String userRoles;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority(this.userRoles.name()));
+        return List.of(new SimpleGrantedAuthority(this.userRoles));
     }
 
     @Override
@@ -0,0 +1,21 @@
+package br.com.inovatech.powerguard.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class EnergyAggregateDTO {
+
+    private String building;
+    private Date bucket;
+    private long count;
+    private Map<String, Map<String, Double>> metrics;
+}
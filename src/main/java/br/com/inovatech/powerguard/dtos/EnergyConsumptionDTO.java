@@ -0,0 +1,23 @@
+package br.com.inovatech.powerguard.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class EnergyConsumptionDTO {
+
+    private String building;
+    private String period;
+    private Date start;
+    private Map<String, Double> energy;
+    private long coveredMillis;
+    private long gapMillis;
+}
@@ -0,0 +1,18 @@
+package br.com.inovatech.powerguard.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class EnergyPageDTO {
+
+    private List<EnergyDTO> content;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package br.com.inovatech.powerguard.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class EnergyRollupDTO {
+
+    private String building;
+    private Date bucket;
+    private Map<String, RollupMetricDTO> metrics;
+}
@@ -0,0 +1,19 @@
+package br.com.inovatech.powerguard.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class RollupMetricDTO {
+
+    private long count;
+    private double sum;
+    private double min;
+    private double max;
+    private double avg;
+}
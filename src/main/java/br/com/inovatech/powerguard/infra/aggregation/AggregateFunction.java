@@ -0,0 +1,56 @@
+package br.com.inovatech.powerguard.infra.aggregation;
+
+import br.com.inovatech.powerguard.infra.exceptions.InvalidParameterException;
+import org.bson.Document;
+
+import java.util.List;
+
+/**
+ * Funções de agregação suportadas pela consulta de agregação de energia. Cada função sabe
+ * montar o acumulador do estágio $group correspondente para um campo de medição.
+ */
+public enum AggregateFunction {
+    AVG, MIN, MAX, SUM, COUNT;
+
+    /**
+     * Monta o acumulador do $group para o campo informado. COUNT conta apenas os documentos
+     * em que o campo possui um valor numérico.
+     *
+     * @param field Nome do campo de medição.
+     * @return O documento do acumulador.
+     */
+    public Document accumulatorOf(String field) {
+        var path = "$" + field;
+
+        if (this == COUNT) {
+            return new Document("$sum", new Document("$cond", List.of(new Document("$isNumber", path), 1, 0)));
+        }
+        return new Document("$" + name().toLowerCase(), path);
+    }
+
+    /**
+     * Monta o nome do campo de saída do $group para o campo e a função informados.
+     *
+     * @param field Nome do campo de medição.
+     * @return O nome do campo de saída.
+     */
+    public String outputOf(String field) {
+        return field + "_" + name().toLowerCase();
+    }
+
+    /**
+     * Busca a função pelo nome, sem diferenciar maiúsculas e minúsculas.
+     *
+     * @param name Nome da função (ex.: "avg").
+     * @return A função correspondente.
+     * @throws InvalidParameterException Se o nome não corresponder a nenhuma função.
+     */
+    public static AggregateFunction fromName(String name) {
+        for (var function : values()) {
+            if (function.name().equalsIgnoreCase(name)) {
+                return function;
+            }
+        }
+        throw new InvalidParameterException("Invalid aggregate function: " + name);
+    }
+}
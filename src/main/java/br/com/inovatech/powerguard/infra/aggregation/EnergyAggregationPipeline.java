@@ -0,0 +1,140 @@
+package br.com.inovatech.powerguard.infra.aggregation;
+
+import br.com.inovatech.powerguard.infra.exceptions.InvalidParameterException;
+import br.com.inovatech.powerguard.infra.readings.Measurement;
+import org.bson.Document;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Monta o pipeline de agregação das leituras de energia de um prédio.
+ *
+ * O pipeline filtra as leituras por prédio e intervalo ($match, coberto pelo índice
+ * building_timestamp), agrupa por intervalos de tamanho fixo com $dateTrunc e calcula
+ * as funções pedidas para cada medição ($group), devolvendo os grupos ordenados. Todo o
+ * trabalho é feito pelo MongoDB; apenas um documento por intervalo chega à aplicação.
+ */
+public record EnergyAggregationPipeline(String building, Date from, Date to, Duration bucket,
+                                        List<Measurement> measurements, List<AggregateFunction> functions) {
+
+    public static final String BUCKET_FIELD = "_id";
+    public static final String COUNT_FIELD = "count";
+
+    private static final Duration MIN_BUCKET = Duration.ofSeconds(1);
+
+    /**
+     * Cria o pipeline a partir dos parâmetros recebidos pela API, validando cada um deles.
+     *
+     * @param building     Nome do prédio.
+     * @param from         Início (inclusivo) do intervalo.
+     * @param to           Fim (exclusivo) do intervalo.
+     * @param bucket       Tamanho do intervalo de agrupamento (ex.: "15m", "1h", "PT30M").
+     * @param metrics      Campos de medição a serem agregados (ex.: "potativatotal").
+     * @param functions    Funções de agregação (avg, min, max, sum, count).
+     * @return O pipeline validado.
+     * @throws InvalidParameterException Se algum parâmetro for inválido.
+     */
+    public static EnergyAggregationPipeline of(String building, Date from, Date to, String bucket,
+                                               List<String> metrics, List<String> functions) {
+        if (!from.before(to)) {
+            throw new InvalidParameterException("The start of the interval must be before its end");
+        }
+
+        Duration bucketSize;
+        try {
+            bucketSize = DurationStyle.detectAndParse(bucket);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Invalid bucket: " + bucket);
+        }
+        if (bucketSize.compareTo(MIN_BUCKET) < 0) {
+            throw new InvalidParameterException("The bucket must be at least " + MIN_BUCKET.toSeconds() + " second");
+        }
+
+        var measurements = metrics.stream()
+                .distinct()
+                .map(metric -> {
+                    var measurement = Measurement.fromField(metric);
+                    if (measurement == null) {
+                        throw new InvalidParameterException("Invalid metric: " + metric);
+                    }
+                    return measurement;
+                })
+                .toList();
+
+        var aggregateFunctions = functions.stream()
+                .map(AggregateFunction::fromName)
+                .distinct()
+                .toList();
+
+        if (measurements.isEmpty() || aggregateFunctions.isEmpty()) {
+            throw new InvalidParameterException("At least one metric and one function are required");
+        }
+
+        return new EnergyAggregationPipeline(building, from, to, bucketSize, measurements, aggregateFunctions);
+    }
+
+    /**
+     * Monta a agregação com os estágios $match, $group e $sort, permitindo o uso de disco
+     * em agrupamentos grandes.
+     *
+     * @return A agregação pronta para ser executada.
+     */
+    public Aggregation toAggregation() {
+        List<AggregationOperation> stages = List.of(
+                context -> new Document("$match", new Document("building", building)
+                        .append("timestamp", new Document("$gte", from).append("$lt", to))),
+                context -> new Document("$group", group()),
+                context -> new Document("$sort", new Document(BUCKET_FIELD, 1)));
+
+        return Aggregation.newAggregation(stages)
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+    }
+
+    private Document group() {
+        var group = new Document(BUCKET_FIELD, bucketExpression())
+                .append(COUNT_FIELD, new Document("$sum", 1));
+
+        for (var measurement : measurements) {
+            for (var function : functions) {
+                group.append(function.outputOf(measurement.getField()), function.accumulatorOf(measurement.getField()));
+            }
+        }
+
+        return group;
+    }
+
+    /**
+     * Converte o tamanho do intervalo na maior unidade do $dateTrunc que o divide exatamente.
+     * Os intervalos diários são alinhados ao fuso horário da aplicação.
+     */
+    private Document bucketExpression() {
+        String unit;
+        long binSize;
+
+        if (bucket.toDays() > 0 && bucket.equals(Duration.ofDays(bucket.toDays()))) {
+            unit = "day";
+            binSize = bucket.toDays();
+        } else if (bucket.toHours() > 0 && bucket.equals(Duration.ofHours(bucket.toHours()))) {
+            unit = "hour";
+            binSize = bucket.toHours();
+        } else if (bucket.toMinutes() > 0 && bucket.equals(Duration.ofMinutes(bucket.toMinutes()))) {
+            unit = "minute";
+            binSize = bucket.toMinutes();
+        } else {
+            unit = "second";
+            binSize = bucket.toSeconds();
+        }
+
+        return new Document("$dateTrunc", new Document("date", "$timestamp")
+                .append("unit", unit)
+                .append("binSize", binSize)
+                .append("timezone", ZoneId.systemDefault().getId()));
+    }
+}
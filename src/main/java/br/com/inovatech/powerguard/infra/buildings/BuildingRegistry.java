@@ -0,0 +1,180 @@
+package br.com.inovatech.powerguard.infra.buildings;
+
+import br.com.inovatech.powerguard.infra.configs.BuildingsEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.configs.RefreshEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.external.proxy.EnergyRequestHandler;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Registro dos prédios monitorados, carregado da configuração energy.buildings.
+ *
+ * Cria uma MonitoredBuilding para cada entrada configurada e permite localizá-la pelo nome,
+ * pelo papel do usuário ou pela chave do snapshot. A configuração é validada na inicialização:
+ * nomes, papéis, chaves do snapshot e chaves de ID (sufixo do ID sintético dos dados de energia)
+ * não podem se repetir entre prédios, e nenhuma chave de ID pode tornar ambíguo o ID de outro prédio.
+ */
+@Slf4j
+@Component
+public class BuildingRegistry {
+
+    @Autowired
+    private BuildingsEnvironmentConfig buildingsConfig;
+
+    @Autowired
+    private RefreshEnvironmentConfig refreshConfig;
+
+    @Autowired
+    private EnergyRequestHandler energyRequestHandler;
+
+    @Value("${external.api.paging.concurrency}")
+    private int CONCURRENCY;
+
+    private List<MonitoredBuilding> buildings = List.of();
+
+    private Map<String, MonitoredBuilding> byName = Map.of();
+
+    private Map<String, MonitoredBuilding> byRole = Map.of();
+
+    /**
+     * Cria os prédios configurados, aplicando os valores padrão aos campos omitidos.
+     *
+     * @throws IllegalStateException se alguma entrada estiver incompleta ou repetida.
+     */
+    @PostConstruct
+    private void init() {
+        var created = new ArrayList<MonitoredBuilding>();
+
+        for (var entry : buildingsConfig.getBuildings()) {
+            requireText(entry.getName(), "name", entry);
+            requireText(entry.getEndpoint(), "endpoint", entry);
+            requireText(entry.getCacheKey(), "cache-key", entry);
+            requireText(entry.getRole(), "role", entry);
+            requireText(entry.getUsername(), "username", entry);
+            requireText(entry.getPassword(), "password", entry);
+
+            var idKey = entry.getIdKey() != null && !entry.getIdKey().isBlank()
+                    ? entry.getIdKey() : entry.getName().substring(entry.getName().length() - 1);
+            var concurrency = entry.getConcurrency() != null ? entry.getConcurrency() : CONCURRENCY;
+
+            if (concurrency < 1) {
+                throw new IllegalStateException("Building " + entry.getName() + " must have a concurrency of at least 1");
+            }
+
+            created.add(new MonitoredBuilding(entry.getName(), idKey, entry.getEndpoint(), entry.getCacheKey(), entry.getRole(),
+                    entry.getUsername(), entry.getPassword(),
+                    entry.getRefreshInterval() != null ? entry.getRefreshInterval() : refreshConfig.getDefaultInterval(),
+                    concurrency, energyRequestHandler));
+        }
+
+        byName = index(created, MonitoredBuilding::getBuildingName, "name");
+        byRole = index(created, MonitoredBuilding::getRole, "role");
+        index(created, MonitoredBuilding::getCacheKey, "cache key");
+        index(created, MonitoredBuilding::getIdKey, "id key");
+        requireUnambiguousIdKeys(created);
+
+        buildings = Collections.unmodifiableList(created);
+
+        log.info("Registered {} monitored buildings: {}", buildings.size(), byName.keySet());
+    }
+
+    /**
+     * @return Todos os prédios monitorados, na ordem da configuração.
+     */
+    public List<MonitoredBuilding> getBuildings() {
+        return buildings;
+    }
+
+    /**
+     * Retorna o prédio monitorado por um papel de usuário (ex.: USER_A -> Building_A).
+     *
+     * @param role Papel do usuário.
+     * @return O prédio correspondente ao papel.
+     * @throws IllegalStateException se nenhum prédio estiver associado ao papel.
+     */
+    public MonitoredBuilding getByRole(String role) {
+        var building = byRole.get(role);
+
+        if (building == null) {
+            throw new IllegalStateException("No building registered for role " + role);
+        }
+
+        return building;
+    }
+
+    /**
+     * Retorna o prédio com o nome informado.
+     *
+     * @param name Nome do prédio.
+     * @return O prédio correspondente ao nome.
+     * @throws IllegalStateException se nenhum prédio possuir o nome.
+     */
+    public MonitoredBuilding getByName(String name) {
+        var building = byName.get(name);
+
+        if (building == null) {
+            throw new IllegalStateException("No building registered with name " + name);
+        }
+
+        return building;
+    }
+
+    private static Map<String, MonitoredBuilding> index(List<MonitoredBuilding> buildings,
+                                                        Function<MonitoredBuilding, String> key, String description) {
+        var index = new HashMap<String, MonitoredBuilding>();
+        Set<String> duplicates = new HashSet<>();
+
+        buildings.forEach(building -> {
+            if (index.putIfAbsent(key.apply(building), building) != null) {
+                duplicates.add(key.apply(building));
+            }
+        });
+
+        if (!duplicates.isEmpty()) {
+            throw new IllegalStateException("Duplicated building " + description + " in energy.buildings: " + duplicates);
+        }
+
+        return Map.copyOf(index);
+    }
+
+    /**
+     * Garante que um ID sintético não possa pertencer a dois prédios. Como os IDs da API externa são
+     * numéricos, dois prédios colidem quando a chave de um é a chave do outro precedida apenas de
+     * dígitos (ex.: "A" e "1A", já que 21 + "A" = 2 + "1A").
+     *
+     * @throws IllegalStateException se alguma chave de ID for ambígua.
+     */
+    private static void requireUnambiguousIdKeys(List<MonitoredBuilding> buildings) {
+        for (var building : buildings) {
+            for (var other : buildings) {
+                var key = building.getIdKey();
+                var otherKey = other.getIdKey();
+
+                if (key.length() > otherKey.length() && key.endsWith(otherKey)
+                        && key.substring(0, key.length() - otherKey.length()).chars().allMatch(Character::isDigit)) {
+                    throw new IllegalStateException("Ambiguous building id keys in energy.buildings: "
+                            + building.getBuildingName() + " (" + key + ") and "
+                            + other.getBuildingName() + " (" + otherKey + ")");
+                }
+            }
+        }
+    }
+
+    private static void requireText(String value, String field, BuildingsEnvironmentConfig.Building entry) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("Building " + entry.getName() + " is missing " + field + " in energy.buildings");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.inovatech.powerguard.infra.buildings;
+
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+import br.com.inovatech.powerguard.infra.external.proxy.EnergyMonitoringAPI;
+import br.com.inovatech.powerguard.infra.external.proxy.EnergyRequestHandler;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * API de monitoramento de um prédio criada a partir da configuração energy.buildings.
+ * Reúne o sufixo dos IDs, o endpoint, a chave do snapshot, o papel do usuário e os limites de
+ * atualização do prédio, já com os valores padrão aplicados.
+ */
+@Getter
+@AllArgsConstructor
+public class MonitoredBuilding implements EnergyMonitoringAPI {
+
+    private final String buildingName;
+    private final String idKey;
+    private final String endpoint;
+    private final String cacheKey;
+    private final String role;
+    private final String username;
+    private final String password;
+    private final Duration refreshInterval;
+    private final int concurrency;
+
+    @Getter(AccessLevel.NONE)
+    private final EnergyRequestHandler energyRequestHandler;
+
+    @Override
+    public Flux<EnergyDTO> getEnergyData(Predicate<EnergyDTO> alreadyIngested) {
+        return energyRequestHandler.getEnergyData(buildingName, endpoint, concurrency, alreadyIngested);
+    }
+
+}
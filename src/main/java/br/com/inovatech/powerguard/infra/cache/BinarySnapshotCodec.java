@@ -0,0 +1,254 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+import br.com.inovatech.powerguard.infra.readings.Measurement;
+import net.jpountz.lz4.LZ4Factory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codificador binário e colunar dos snapshots de energia.
+ *
+ * Formato (versão 1):
+ * - Cabeçalho: magic "PGSN" (4 bytes), versão (1 byte), compressão (1 byte) e
+ *   tamanho do conteúdo descomprimido (int).
+ * - Conteúdo: quantidade de leituras, dicionário de prédios, IDs, índice do prédio de cada
+ *   leitura, colunas de timestamp e createdAt (long) e, para cada grandeza, o nome do campo
+ *   seguido da coluna de valores (double).
+ *
+ * As colunas são identificadas pelo nome do campo, então snapshots gravados com um conjunto
+ * diferente de grandezas continuam legíveis (colunas ausentes ficam como NaN).
+ *
+ * Os snapshots atuais gravam um membro por leitura (SnapshotMemberCodec); este formato é mantido
+ * para ler os membros em lote gravados anteriormente, com qualquer compressão.
+ */
+@Component
+public class BinarySnapshotCodec implements EnergySnapshotCodec {
+
+    private static final byte[] MAGIC = {'P', 'G', 'S', 'N'};
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 2 + Integer.BYTES;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    @Override
+    public byte[] encode(EnergyReadingBatch batch) {
+        return encode(batch, SnapshotCompression.NONE);
+    }
+
+    /**
+     * Codifica o lote com a compressão informada.
+     *
+     * @param batch       Lote de leituras.
+     * @param compression Compressão aplicada ao conteúdo.
+     * @return O snapshot codificado.
+     */
+    public byte[] encode(EnergyReadingBatch batch, SnapshotCompression compression) {
+        var payload = writePayload(batch);
+        var compressed = compress(compression, payload);
+
+        return ByteBuffer.allocate(HEADER_SIZE + compressed.length)
+                .put(MAGIC)
+                .put((byte) VERSION)
+                .put((byte) compression.getCode())
+                .putInt(payload.length)
+                .put(compressed)
+                .array();
+    }
+
+    @Override
+    public EnergyReadingBatch decode(byte[] bytes) {
+        var buffer = ByteBuffer.wrap(bytes, MAGIC.length, bytes.length - MAGIC.length);
+        int version = buffer.get();
+
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported energy snapshot version: " + version);
+        }
+
+        var compression = SnapshotCompression.fromCode(buffer.get());
+        int length = buffer.getInt();
+
+        return readPayload(decompress(compression, bytes, HEADER_SIZE, length));
+    }
+
+    @Override
+    public boolean supports(byte[] bytes) {
+        return bytes.length >= HEADER_SIZE && Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    private byte[] writePayload(EnergyReadingBatch batch) {
+        var bytes = new ByteArrayOutputStream(64 + batch.size() * (Measurement.values().length * Double.BYTES + 32));
+
+        try (var out = new DataOutputStream(bytes)) {
+            int size = batch.size();
+            out.writeInt(size);
+
+            Map<String, Integer> buildings = new HashMap<>();
+            List<String> dictionary = new ArrayList<>();
+            var buildingIndexes = new int[size];
+            for (int row = 0; row < size; row++) {
+                var building = batch.building(row);
+                buildingIndexes[row] = building == null ? -1 : buildings.computeIfAbsent(building, key -> {
+                    dictionary.add(key);
+                    return dictionary.size() - 1;
+                });
+            }
+
+            out.writeInt(dictionary.size());
+            for (var building : dictionary) {
+                out.writeUTF(building);
+            }
+
+            for (int row = 0; row < size; row++) {
+                writeNullableString(out, batch.id(row));
+                out.writeInt(buildingIndexes[row]);
+            }
+
+            for (int row = 0; row < size; row++) {
+                out.writeLong(batch.timestamp(row));
+            }
+            for (int row = 0; row < size; row++) {
+                out.writeLong(batch.createdAt(row));
+            }
+
+            out.writeInt(Measurement.values().length);
+            for (var measurement : Measurement.values()) {
+                out.writeUTF(measurement.getField());
+                for (double value : batch.column(measurement)) {
+                    out.writeDouble(value);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode binary energy snapshot", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private EnergyReadingBatch readPayload(byte[] payload) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int size = in.readInt();
+
+            var dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = in.readUTF();
+            }
+
+            var ids = new String[size];
+            var buildings = new String[size];
+            for (int row = 0; row < size; row++) {
+                ids[row] = readNullableString(in);
+                int buildingIndex = in.readInt();
+                buildings[row] = buildingIndex < 0 ? null : dictionary[buildingIndex];
+            }
+
+            var timestamps = new long[size];
+            for (int row = 0; row < size; row++) {
+                timestamps[row] = in.readLong();
+            }
+            var createdAts = new long[size];
+            for (int row = 0; row < size; row++) {
+                createdAts[row] = in.readLong();
+            }
+
+            var columns = new double[Measurement.values().length][];
+            int columnCount = in.readInt();
+            for (int i = 0; i < columnCount; i++) {
+                var measurement = Measurement.fromField(in.readUTF());
+                var column = new double[size];
+                for (int row = 0; row < size; row++) {
+                    column[row] = in.readDouble();
+                }
+                if (measurement != null) {
+                    columns[measurement.ordinal()] = column;
+                }
+            }
+
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] == null) {
+                    columns[i] = new double[size];
+                    Arrays.fill(columns[i], Double.NaN);
+                }
+            }
+
+            return new EnergyReadingBatch(ids, buildings, timestamps, createdAts, columns);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode binary energy snapshot", e);
+        }
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static byte[] compress(SnapshotCompression compression, byte[] payload) {
+        return switch (compression) {
+            case NONE -> payload;
+            case LZ4 -> LZ4.fastCompressor().compress(payload);
+            case DEFLATE -> {
+                var deflater = new Deflater(Deflater.BEST_SPEED);
+                try {
+                    deflater.setInput(payload);
+                    deflater.finish();
+                    var out = new ByteArrayOutputStream(payload.length / 2 + 64);
+                    var chunk = new byte[8192];
+                    while (!deflater.finished()) {
+                        out.write(chunk, 0, deflater.deflate(chunk));
+                    }
+                    yield out.toByteArray();
+                } finally {
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    private static byte[] decompress(SnapshotCompression compression, byte[] bytes, int offset, int length) {
+        return switch (compression) {
+            case NONE -> Arrays.copyOfRange(bytes, offset, offset + length);
+            case LZ4 -> {
+                var payload = new byte[length];
+                LZ4.fastDecompressor().decompress(bytes, offset, payload, 0, length);
+                yield payload;
+            }
+            case DEFLATE -> {
+                var inflater = new Inflater();
+                try {
+                    inflater.setInput(bytes, offset, bytes.length - offset);
+                    var payload = new byte[length];
+                    int read = 0;
+                    while (read < length && !inflater.finished()) {
+                        read += inflater.inflate(payload, read, length - read);
+                    }
+                    yield payload;
+                } catch (DataFormatException e) {
+                    throw new IllegalStateException("Corrupted energy snapshot", e);
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+}
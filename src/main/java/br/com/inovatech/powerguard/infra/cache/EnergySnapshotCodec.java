@@ -0,0 +1,21 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+
+/**
+ * Codificador dos snapshots de energia gravados no Redis.
+ */
+public interface EnergySnapshotCodec {
+
+    byte[] encode(EnergyReadingBatch batch);
+
+    EnergyReadingBatch decode(byte[] bytes);
+
+    /**
+     * Indica se os bytes foram gravados por este codificador.
+     *
+     * @param bytes Conteúdo lido do Redis.
+     * @return true se este codificador consegue decodificar o conteúdo.
+     */
+    boolean supports(byte[] bytes);
+}
@@ -0,0 +1,197 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.infra.configs.SnapshotEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Componente responsável por gravar e ler os snapshots de energia de cada prédio no Redis.
+ *
+ * O snapshot de cada prédio é um sorted set cujo score é o timestamp da leitura e cujo membro
+ * é a leitura codificada individualmente. Cada atualização adiciona apenas as leituras novas e
+ * remove as que saíram da janela (energy.cache.snapshot.window), então o tráfego com o Redis não
+ * cresce ao longo do dia, e a leitura pode pedir apenas as leituras posteriores a um timestamp.
+ *
+ * Como só recebe as leituras novas, o snapshot é reconciliado com o banco na primeira
+ * atualização de cada chave nesta réplica e depois a cada energy.cache.snapshot.reseed-interval:
+ * todas as leituras da janela são regravadas, preenchendo as que tenham se perdido (por exemplo,
+ * em um ciclo que falhou depois de gravar no banco). Como a codificação é determinística, as
+ * leituras já presentes não são duplicadas.
+ *
+ * O formato dos membros é escolhido por chave: BINARY (SnapshotMemberCodec, compacto por leitura)
+ * ou JSON. A leitura detecta o formato pelo conteúdo, inclusive o formato binário em lote de
+ * versões anteriores, portanto trocar o formato de uma chave não exige limpar o Redis.
+ */
+@Slf4j
+@Component
+public class EnergySnapshotStore {
+
+    @Autowired
+    private ReactiveRedisTemplate<String, byte[]> snapshotRedisTemplate;
+
+    @Autowired
+    private SnapshotEnvironmentConfig snapshotConfig;
+
+    @Autowired
+    private SnapshotMemberCodec memberCodec;
+
+    @Autowired
+    private BinarySnapshotCodec binaryCodec;
+
+    @Autowired
+    private JsonSnapshotCodec jsonCodec;
+
+    // Momento (System.nanoTime) da última reconciliação de cada chave com o banco.
+    private final Map<String, Long> lastReseeded = new ConcurrentHashMap<>();
+
+    /**
+     * Adiciona as leituras novas ao snapshot de um prédio e remove as que saíram da janela.
+     * Se a chave não existir, ou tiver sido gravada no formato antigo (uma string com a lista
+     * completa), ela é recriada a partir das leituras fornecidas pelo seed; se a última
+     * reconciliação da chave tiver vencido, as leituras do seed são regravadas.
+     *
+     * @param key      Chave de cache do prédio.
+     * @param readings Leituras recém-inseridas.
+     * @param seed     Fornece todas as leituras da janela, usado para recriar ou reconciliar a chave.
+     * @return Mono<Boolean> indicando se o snapshot foi alterado.
+     */
+    public Mono<Boolean> append(String key, List<EnergyReading> readings, Supplier<Flux<EnergyReading>> seed) {
+        return snapshotRedisTemplate.type(key)
+                .flatMap(type -> {
+                    if (type != DataType.ZSET) {
+                        log.warn("Seeding energy snapshot {} (found type {})", key, type);
+                        return snapshotRedisTemplate.delete(key)
+                                .then(reseed(key, seed))
+                                .map(added -> added + 1);
+                    }
+
+                    var last = lastReseeded.get(key);
+                    if (last != null && System.nanoTime() - last < snapshotConfig.getReseedInterval().toNanos()) {
+                        return add(key, readings);
+                    }
+
+                    log.info("Reconciling energy snapshot {} with the database", key);
+                    return add(key, readings)
+                            .flatMap(added -> reseed(key, seed).map(restored -> added + restored));
+                })
+                .flatMap(added -> trim(key).map(removed -> added + removed > 0));
+    }
+
+    /**
+     * Lê o snapshot completo de um prédio.
+     *
+     * @param key Chave de cache do prédio.
+     * @return Mono<EnergyReadingBatch> com as leituras em ordem cronológica, ou vazio se não houver snapshot.
+     */
+    public Mono<EnergyReadingBatch> read(String key) {
+        return read(key, Range.unbounded());
+    }
+
+    /**
+     * Lê as leituras do snapshot de um prédio posteriores a um timestamp.
+     *
+     * @param key   Chave de cache do prédio.
+     * @param since Timestamp (epoch em milissegundos) a partir do qual, exclusivo, as leituras são retornadas.
+     * @return Mono<EnergyReadingBatch> com as leituras em ordem cronológica, ou vazio se não houver leituras.
+     */
+    public Mono<EnergyReadingBatch> readSince(String key, long since) {
+        return read(key, Range.rightUnbounded(Range.Bound.exclusive((double) since)));
+    }
+
+    private Mono<EnergyReadingBatch> read(String key, Range<Double> range) {
+        return snapshotRedisTemplate.opsForZSet().rangeByScore(key, range)
+                .collectList()
+                .filter(members -> !members.isEmpty())
+                .map(this::decode);
+    }
+
+    /**
+     * Regrava todas as leituras da janela fornecidas pelo seed e registra a reconciliação da chave.
+     */
+    private Mono<Long> reseed(String key, Supplier<Flux<EnergyReading>> seed) {
+        var started = System.nanoTime();
+
+        return seed.get().collectList()
+                .flatMap(all -> add(key, all))
+                .doOnSuccess(added -> lastReseeded.put(key, started));
+    }
+
+    private Mono<Long> add(String key, List<EnergyReading> readings) {
+        if (readings.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        return Mono.fromCallable(() -> {
+                    var format = snapshotConfig.getFormatOf(key);
+                    return readings.stream()
+                            .map(reading -> ZSetOperations.TypedTuple.of(encode(format, reading), (double) scoreOf(reading)))
+                            .toList();
+                })
+                .flatMap(members -> snapshotRedisTemplate.opsForZSet().addAll(key, members));
+    }
+
+    private Mono<Long> trim(String key) {
+        var cutoff = System.currentTimeMillis() - snapshotConfig.getWindow().toMillis();
+        return snapshotRedisTemplate.opsForZSet()
+                .removeRangeByScore(key, Range.leftUnbounded(Range.Bound.exclusive((double) cutoff)));
+    }
+
+    /**
+     * Decodifica os membros do sorted set em um único lote. Uma mesma leitura pode aparecer em
+     * mais de um membro se o formato da chave tiver sido trocado; nesse caso prevalece a última.
+     * Membros de um lote (BinarySnapshotCodec ou JSON) são aceitos para ler snapshots antigos.
+     */
+    private EnergyReadingBatch decode(List<byte[]> members) {
+        var readings = new LinkedHashMap<String, EnergyReading>();
+
+        for (var member : members) {
+            if (memberCodec.supports(member)) {
+                var reading = memberCodec.decode(member);
+                readings.put(reading.id(), reading);
+                continue;
+            }
+
+            var batch = decode(member);
+            for (int row = 0; row < batch.size(); row++) {
+                var reading = batch.get(row);
+                readings.put(reading.id(), reading);
+            }
+        }
+        return EnergyReadingBatch.of(List.copyOf(readings.values()));
+    }
+
+    private EnergyReadingBatch decode(byte[] bytes) {
+        for (var codec : List.of(binaryCodec, jsonCodec)) {
+            if (codec.supports(bytes)) {
+                return codec.decode(bytes);
+            }
+        }
+        throw new IllegalStateException("Unknown energy snapshot format");
+    }
+
+    private static long scoreOf(EnergyReading reading) {
+        var time = reading.orderingTime();
+        return time != EnergyReading.NO_TIME ? time : System.currentTimeMillis();
+    }
+
+    private byte[] encode(SnapshotFormat format, EnergyReading reading) {
+        return format == SnapshotFormat.JSON
+                ? jsonCodec.encode(EnergyReadingBatch.of(List.of(reading)))
+                : memberCodec.encode(reading);
+    }
+}
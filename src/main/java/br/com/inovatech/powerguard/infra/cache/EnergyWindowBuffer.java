@@ -0,0 +1,110 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.infra.configs.SnapshotEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.live.EnergyLiveFeed;
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+import br.com.inovatech.powerguard.repositories.EnergyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Janelas deslizantes em memória com as leituras das últimas 24 horas de cada prédio.
+ *
+ * Cada janela é carregada uma vez do snapshot no Redis (ou do MongoDB, se o snapshot estiver
+ * vazio), recebe as novas leituras pelo EnergyLiveFeed e descarta as que saem da janela pelo
+ * timestamp. Assim, o endpoint de últimas 24 horas sempre devolve exatamente as últimas 24 horas,
+ * inclusive logo após a meia-noite, e cada leitura devolve a resposta já serializada e o seu ETag.
+ *
+ * Como o canal de leituras do Redis não garante entrega, a janela é ressincronizada com o
+ * snapshot periodicamente; as leituras repetidas são ignoradas.
+ */
+@Slf4j
+@Component
+public class EnergyWindowBuffer {
+
+    @Autowired
+    private EnergySnapshotStore energySnapshotStore;
+
+    @Autowired
+    private EnergyRepository energyRepository;
+
+    @Autowired
+    private EnergyLiveFeed energyLiveFeed;
+
+    @Autowired
+    private SnapshotEnvironmentConfig snapshotConfig;
+
+    private final Map<String, OpenWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna a resposta serializada com as leituras da janela de um prédio, abrindo a janela
+     * na primeira chamada.
+     *
+     * @param key        Chave de cache do prédio.
+     * @param building   Nome do prédio.
+     * @param serializer Converte as leituras da janela na resposta.
+     * @return Mono<WindowResponse> com a resposta e o seu ETag, ou vazio se não houver leituras na janela.
+     */
+    public Mono<WindowResponse> read(String key, String building, Function<EnergyReadingBatch, byte[]> serializer) {
+        var window = windows.computeIfAbsent(key, k -> open(k, building));
+
+        return window.loaded()
+                .then(Mono.fromCallable(() -> window.window().serialize(serializer)))
+                .doOnError(e -> {
+                    log.error("Failed to load energy window for building {}: {}", building, e.getMessage());
+                    if (windows.remove(key, window)) {
+                        window.subscriptions().dispose();
+                    }
+                });
+    }
+
+    private OpenWindow open(String key, String building) {
+        log.info("Opening energy window for building {}", building);
+        var window = new ReadingWindow(snapshotConfig.getWindow().toMillis());
+        var subscriptions = Disposables.composite();
+
+        subscriptions.add(energyLiveFeed.subscribe(building)
+                .map(EnergyReading::from)
+                .subscribe(window::add));
+
+        subscriptions.add(Flux.interval(snapshotConfig.getResyncInterval())
+                .concatMap(tick -> load(key, building, window)
+                        .onErrorResume(e -> {
+                            log.error("Failed to resync energy window for building {}: {}", building, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe());
+
+        return new OpenWindow(window, load(key, building, window).cache(), subscriptions);
+    }
+
+    private Mono<Void> load(String key, String building, ReadingWindow window) {
+        return energySnapshotStore.read(key)
+                .flatMapMany(batch -> Flux.range(0, batch.size()).map(batch::get))
+                .switchIfEmpty(Flux.defer(() -> energyRepository.findByBuildingAndTimestampSince(building,
+                                LocalDateTime.now().minus(snapshotConfig.getWindow())))
+                        .map(EnergyReading::from))
+                .doOnNext(window::add)
+                .then();
+    }
+
+    @PreDestroy
+    private void stop() {
+        windows.values().forEach(window -> window.subscriptions().dispose());
+    }
+
+    private record OpenWindow(ReadingWindow window, Mono<Void> loaded, Disposable.Composite subscriptions) {
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Codificador JSON dos snapshots de energia. Grava a lista de EnergyDTO no mesmo formato
+ * usado anteriormente pelo Jackson2JsonRedisSerializer, mantendo a compatibilidade com
+ * os snapshots já existentes no Redis.
+ */
+@Component
+public class JsonSnapshotCodec implements EnergySnapshotCodec {
+
+    private static final TypeReference<List<EnergyDTO>> ENERGY_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public byte[] encode(EnergyReadingBatch batch) {
+        try {
+            return objectMapper.writeValueAsBytes(batch.toDTOs());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode energy snapshot as JSON", e);
+        }
+    }
+
+    @Override
+    public EnergyReadingBatch decode(byte[] bytes) {
+        try {
+            List<EnergyDTO> energies = objectMapper.readValue(bytes, ENERGY_LIST);
+            return EnergyReadingBatch.of(energies.stream().map(EnergyReading::from).toList());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode JSON energy snapshot", e);
+        }
+    }
+
+    @Override
+    public boolean supports(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == '[';
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+import br.com.inovatech.powerguard.infra.utils.ETagUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Janela deslizante de leituras de um prédio, guardada em um buffer circular ordenado pelo
+ * instante de cada leitura.
+ *
+ * As leituras novas entram no fim do buffer e as que saem da janela são removidas do início,
+ * ambas em O(1) amortizado; leituras fora de ordem (raras) são inseridas na posição correta.
+ * A resposta serializada é guardada junto com a versão da janela, então leituras repetidas sem
+ * alteração da janela não serializam os dados novamente.
+ *
+ * O instante da última alteração é derivado das próprias leituras (a maior data de gravação e o
+ * momento em que a leitura removida saiu da janela), de forma que instâncias com o mesmo
+ * conteúdo informam o mesmo Last-Modified.
+ */
+final class ReadingWindow {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final long windowMillis;
+
+    private EnergyReading[] items = new EnergyReading[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+    private final Set<String> ids = new HashSet<>();
+
+    private long version;
+    private long lastModified;
+    private long serializedVersion = -1;
+    private WindowResponse serialized;
+
+    ReadingWindow(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Adiciona uma leitura à janela, ignorando leituras repetidas ou já fora da janela.
+     *
+     * @param reading Leitura a ser adicionada.
+     */
+    synchronized void add(EnergyReading reading) {
+        var time = reading.orderingTime();
+        if (time == EnergyReading.NO_TIME || time < cutoff() || !ids.add(reading.id())) {
+            return;
+        }
+
+        if (size == items.length) {
+            grow();
+        }
+
+        int position = size;
+        while (position > 0 && at(position - 1).orderingTime() > time) {
+            items[index(position)] = at(position - 1);
+            position--;
+        }
+        items[index(position)] = reading;
+        size++;
+        version++;
+        lastModified = Math.max(lastModified, reading.createdAt() != EnergyReading.NO_TIME ? reading.createdAt() : time);
+    }
+
+    /**
+     * Retorna a resposta serializada das leituras da janela, serializando novamente apenas se a
+     * janela mudou desde a última chamada.
+     *
+     * @param serializer Converte as leituras da janela na resposta.
+     * @return A resposta serializada, ou null se a janela estiver vazia.
+     */
+    synchronized WindowResponse serialize(Function<EnergyReadingBatch, byte[]> serializer) {
+        evict();
+
+        if (size == 0) {
+            return null;
+        }
+        if (serializedVersion != version) {
+            var readings = new EnergyReading[size];
+            for (int i = 0; i < size; i++) {
+                readings[i] = at(i);
+            }
+            var body = serializer.apply(EnergyReadingBatch.of(Arrays.asList(readings)));
+            serialized = new WindowResponse(body, ETagUtils.weakETag(body), lastModified);
+            serializedVersion = version;
+        }
+        return serialized;
+    }
+
+    private void evict() {
+        var cutoff = cutoff();
+        while (size > 0 && at(0).orderingTime() < cutoff) {
+            lastModified = Math.max(lastModified, at(0).orderingTime() + windowMillis);
+            ids.remove(at(0).id());
+            items[head] = null;
+            head = index(1);
+            size--;
+            version++;
+        }
+    }
+
+    private void grow() {
+        var grown = new EnergyReading[items.length * 2];
+        for (int i = 0; i < size; i++) {
+            grown[i] = at(i);
+        }
+        items = grown;
+        head = 0;
+    }
+
+    private EnergyReading at(int position) {
+        return items[index(position)];
+    }
+
+    private int index(int position) {
+        return (head + position) % items.length;
+    }
+
+    private long cutoff() {
+        return System.currentTimeMillis() - windowMillis;
+    }
+}
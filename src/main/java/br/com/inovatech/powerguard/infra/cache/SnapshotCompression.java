@@ -0,0 +1,28 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+/**
+ * Algoritmos de compressão do formato binário de snapshot. O código de cada algoritmo
+ * é gravado no cabeçalho do snapshot, portanto não deve ser alterado.
+ */
+public enum SnapshotCompression {
+    NONE(0), LZ4(1), DEFLATE(2);
+
+    private final int code;
+
+    SnapshotCompression(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static SnapshotCompression fromCode(int code) {
+        for (var compression : values()) {
+            if (compression.code == code) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown snapshot compression: " + code);
+    }
+}
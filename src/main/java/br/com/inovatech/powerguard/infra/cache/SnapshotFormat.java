@@ -0,0 +1,8 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+/**
+ * Formatos disponíveis para gravar os snapshots de energia no Redis.
+ */
+public enum SnapshotFormat {
+    BINARY, JSON
+}
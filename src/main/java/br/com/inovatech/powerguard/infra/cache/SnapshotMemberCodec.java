@@ -0,0 +1,111 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.Measurement;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Codificador binário compacto de uma única leitura, usado nos membros do sorted set do snapshot.
+ *
+ * Formato (versão 1):
+ * - magic "PGR" (3 bytes) e versão (1 byte);
+ * - ID e prédio (UTF anuláveis), timestamp e createdAt (long);
+ * - máscara das grandezas presentes (long, um bit por grandeza na ordem de Measurement) seguida
+ *   apenas dos valores presentes (double).
+ *
+ * Diferente do BinarySnapshotCodec, não há cabeçalho de lote, dicionário de prédios nem nomes de
+ * colunas: a ordem das grandezas é fixada pela versão. A codificação é determinística, então
+ * gravar novamente a mesma leitura produz o mesmo membro e não a duplica no sorted set.
+ */
+@Component
+public class SnapshotMemberCodec {
+
+    private static final byte[] MAGIC = {'P', 'G', 'R'};
+    private static final int VERSION = 1;
+
+    private static final Measurement[] MEASUREMENTS = Measurement.values();
+
+    public byte[] encode(EnergyReading reading) {
+        var bytes = new ByteArrayOutputStream(64 + MEASUREMENTS.length * Double.BYTES);
+
+        try (var out = new DataOutputStream(bytes)) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            writeNullableString(out, reading.id());
+            writeNullableString(out, reading.building());
+            out.writeLong(reading.timestamp());
+            out.writeLong(reading.createdAt());
+
+            long present = 0;
+            for (var measurement : MEASUREMENTS) {
+                if (!Double.isNaN(reading.get(measurement))) {
+                    present |= 1L << measurement.ordinal();
+                }
+            }
+
+            out.writeLong(present);
+            for (var measurement : MEASUREMENTS) {
+                if ((present & 1L << measurement.ordinal()) != 0) {
+                    out.writeDouble(reading.get(measurement));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode energy snapshot member", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    public EnergyReading decode(byte[] bytes) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(bytes, MAGIC.length, bytes.length - MAGIC.length))) {
+            int version = in.readUnsignedByte();
+
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported energy snapshot member version: " + version);
+            }
+
+            var id = readNullableString(in);
+            var building = readNullableString(in);
+            var timestamp = in.readLong();
+            var createdAt = in.readLong();
+            var present = in.readLong();
+
+            var values = new double[MEASUREMENTS.length];
+            for (var measurement : MEASUREMENTS) {
+                values[measurement.ordinal()] = (present & 1L << measurement.ordinal()) != 0 ? in.readDouble() : Double.NaN;
+            }
+
+            return EnergyReading.of(id, building, timestamp, createdAt, values);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode energy snapshot member", e);
+        }
+    }
+
+    /**
+     * Indica se os bytes foram gravados por este codificador.
+     *
+     * @param bytes Membro lido do Redis.
+     * @return true se este codificador consegue decodificar o membro.
+     */
+    public boolean supports(byte[] bytes) {
+        return bytes.length > MAGIC.length && Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
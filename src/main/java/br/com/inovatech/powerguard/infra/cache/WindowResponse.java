@@ -0,0 +1,12 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+/**
+ * Resposta serializada de uma janela de leituras, com os metadados usados nas requisições
+ * condicionais (If-None-Match e If-Modified-Since).
+ *
+ * @param body         Conteúdo serializado.
+ * @param etag         ETag fraco do conteúdo.
+ * @param lastModified Instante (epoch em milissegundos) da última alteração da janela.
+ */
+public record WindowResponse(byte[] body, String etag, long lastModified) {
+}
@@ -0,0 +1,48 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "energy")
+@Data
+public class BuildingsEnvironmentConfig {
+
+    // Prédios monitorados. Cada entrada cria uma API de monitoramento, um usuário e um agendamento próprios.
+    private List<Building> buildings = new ArrayList<>();
+
+    @Data
+    public static class Building {
+
+        // Nome do prédio (ex.: Building_A).
+        private String name;
+
+        // Sufixo do ID sintético dos dados de energia do prédio (vazio usa o último caractere do nome,
+        // formato dos IDs já gravados).
+        private String idKey;
+
+        // Endpoint da API externa que fornece os dados do prédio.
+        private String endpoint;
+
+        // Chave do snapshot do prédio no Redis.
+        private String cacheKey;
+
+        // Papel do usuário que consulta os dados do prédio (ex.: USER_A).
+        private String role;
+
+        // Credenciais do usuário cadastrado para o prédio.
+        private String username;
+        private String password;
+
+        // Intervalo de atualização do prédio (vazio usa energy.refresh.default-interval).
+        private Duration refreshInterval;
+
+        // Quantidade de páginas buscadas em paralelo (vazio usa external.api.paging.concurrency).
+        private Integer concurrency;
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "energy.consumption")
+@Data
+public class ConsumptionEnvironmentConfig {
+
+    // Intervalo máximo entre duas leituras para que o consumo entre elas seja integrado.
+    private Duration maxGap = Duration.ofMinutes(15);
+
+    // Fator que converte as potências recebidas da API para kW/kVAr (ex.: 0.001 se vierem em W/VAr).
+    private double powerUnitFactor = 1.0;
+}
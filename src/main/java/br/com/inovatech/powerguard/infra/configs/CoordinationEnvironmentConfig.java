@@ -0,0 +1,40 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "energy.refresh.coordination")
+@Data
+public class CoordinationEnvironmentConfig {
+
+    // Modo de coordenação da atualização entre as réplicas da aplicação.
+    private CoordinationMode mode = CoordinationMode.LEADER;
+
+    // Identificador desta réplica (vazio usa o nome do host seguido de um sufixo aleatório).
+    private String nodeId;
+
+    // Prefixo das chaves de coordenação no Redis.
+    private String keyPrefix = "powerguard:refresh";
+
+    // Validade de cada lease no Redis. Uma réplica que para de renovar perde os seus prédios após esse tempo.
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    // Intervalo de renovação dos leases e do registro da réplica. Deve ser menor que lease-ttl.
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+
+    // Quantidade de pontos de cada réplica no anel de hash consistente (modo SHARDED).
+    private int virtualNodes = 64;
+
+    public enum CoordinationMode {
+        // Todas as réplicas atualizam todos os prédios (uso com uma única réplica).
+        NONE,
+        // Uma única réplica, eleita por lease, atualiza todos os prédios.
+        LEADER,
+        // Os prédios são distribuídos entre as réplicas ativas por hash consistente.
+        SHARDED
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "energy.derived")
+@Data
+public class DerivedDataEnvironmentConfig {
+
+    // Intervalo entre as reconciliações dos agregados e do consumo com a coleção de energia.
+    private Duration reconcileInterval = Duration.ofHours(1);
+
+    // Janela recente recalculada a cada reconciliação.
+    private Duration reconcileWindow = Duration.ofHours(48);
+
+    // Recalcula todo o histórico de cada prédio uma única vez (retomado após reinícios).
+    private boolean backfill = false;
+
+    // Quantidade de dias recalculados por etapa do preenchimento do histórico.
+    private int backfillBatchDays = 7;
+}
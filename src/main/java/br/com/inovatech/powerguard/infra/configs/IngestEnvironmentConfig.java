@@ -0,0 +1,20 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "energy.ingest")
+@Data
+public class IngestEnvironmentConfig {
+
+    // Quantidade de dados de energia gravados por operação em lote.
+    private int batchSize = 500;
+
+    // Quantidade máxima de IDs mantidos em memória por prédio.
+    private int idIndexCapacity = 50000;
+
+    // Janela (em horas) de IDs carregados do banco ao iniciar a aplicação.
+    private int idIndexWarmupHours = 48;
+}
@@ -0,0 +1,25 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "energy.live")
+@Data
+public class LiveEnvironmentConfig {
+
+    // Prefixo dos canais do Redis usados para distribuir as novas leituras (um canal por prédio).
+    private String channelPrefix = "powerguard:live:";
+
+    // Quantidade de leituras recentes reenviadas para cada novo assinante.
+    private int replaySize = 50;
+
+    // Quantidade máxima de leituras pendentes por assinante lento; as mais antigas são descartadas.
+    private int subscriberBufferSize = 256;
+
+    // Intervalo entre os heartbeats enviados para manter as conexões abertas.
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
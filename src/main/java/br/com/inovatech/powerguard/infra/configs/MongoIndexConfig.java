@@ -0,0 +1,56 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.infra.rollups.RollupGranularity;
+import br.com.inovatech.powerguard.infra.storage.EnergyCollectionMigrator;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import reactor.core.publisher.Flux;
+
+/**
+ * Classe de configuração da coleção de energia e dos seus índices no MongoDB.
+ *
+ * Após a preparação da coleção de acordo com o modo de armazenamento (EnergyCollectionMigrator),
+ * cria os índices compostos usados pelas consultas de energia:
+ * - { createdAt, _id }: paginação por cursor e histórico ordenado por data de criação.
+ * - { building, createdAt }: consulta dos dados de um prédio em um intervalo de datas.
+ * - { building, timestamp }: verificação de leituras existentes no modo time-series.
+ * - { building, bucket }: consulta dos agregados (rollups) de cada granularidade.
+ */
+@Slf4j
+@Configuration
+public class MongoIndexConfig {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private EnergyCollectionMigrator energyCollectionMigrator;
+
+    /**
+     * Aguarda a preparação da coleção de energia e garante a existência dos índices. As operações
+     * são idempotentes.
+     */
+    @PostConstruct
+    private void ensureIndexes() {
+        var indexOps = mongoTemplate.indexOps(EnergyDomain.class);
+
+        energyCollectionMigrator.ready()
+                .thenMany(Flux.just(
+                        new Index().on("createdAt", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("createdAt_id"),
+                        new Index().on("building", Sort.Direction.ASC).on("createdAt", Sort.Direction.ASC).named("building_createdAt"),
+                        new Index().on("building", Sort.Direction.ASC).on("timestamp", Sort.Direction.ASC).named("building_timestamp")))
+                .concatMap(indexOps::ensureIndex)
+                .concatWith(Flux.fromArray(RollupGranularity.values())
+                        .concatMap(granularity -> mongoTemplate.indexOps(granularity.getCollection())
+                                .ensureIndex(new Index().on("building", Sort.Direction.ASC).on("bucket", Sort.Direction.ASC)
+                                        .named("building_bucket"))))
+                .subscribe(name -> log.info("Ensured energy index {}", name),
+                        e -> log.error("Failed to prepare energy collection: {}", e.getMessage()));
+    }
+}
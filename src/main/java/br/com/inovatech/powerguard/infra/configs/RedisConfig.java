@@ -6,6 +6,7 @@ import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -17,6 +18,7 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
  * - O `ReactiveRedisTemplate` é configurado com serializadores para as chaves e valores.
  * - As chaves são serializadas como strings usando `StringRedisSerializer`.
  * - Os valores são serializados em JSON utilizando o `Jackson2JsonRedisSerializer`.
+ * - Os snapshots de energia usam um template de bytes, codificados pelo `EnergySnapshotStore`.
  */
 @Configuration
 public class RedisConfig {
@@ -38,4 +40,21 @@ public class RedisConfig {
 
         return new ReactiveRedisTemplate<>(factory, context);
     }
+
+    /**
+     * Configura o `ReactiveRedisTemplate` usado pelos snapshots de energia. Os valores são gravados
+     * como bytes, já codificados no formato escolhido para cada chave.
+     *
+     * @param factory A fábrica de conexões reativas do Redis.
+     * @return ReactiveRedisTemplate<String, byte[]> Template reativo de bytes.
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> snapshotRedisTemplate(ReactiveRedisConnectionFactory factory) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(new StringRedisSerializer())
+                .value(RedisSerializer.byteArray())
+                .build();
+
+        return new ReactiveRedisTemplate<>(factory, context);
+    }
 }
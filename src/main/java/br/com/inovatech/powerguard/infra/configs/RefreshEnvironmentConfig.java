@@ -0,0 +1,22 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "energy.refresh")
+@Data
+public class RefreshEnvironmentConfig {
+
+    // Intervalo de atualização usado pelos prédios sem refresh-interval em energy.buildings.
+    private Duration defaultInterval = Duration.ofMinutes(5);
+
+    // Atraso aleatório máximo aplicado ao início do agendamento de cada prédio.
+    private Duration maxJitter = Duration.ofSeconds(30);
+
+    // Quantidade máxima de threads do scheduler de atualização.
+    private int schedulerThreads = 4;
+}
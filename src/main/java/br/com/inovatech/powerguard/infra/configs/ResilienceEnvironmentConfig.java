@@ -0,0 +1,113 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "external.api.resilience")
+@Data
+public class ResilienceEnvironmentConfig {
+
+    // Configuração usada pelos prédios sem configuração própria. Os campos omitidos usam os valores de Settings.standard().
+    private Settings defaults = Settings.standard();
+
+    // Configurações por prédio (ex.: Building_A). Cada campo informado substitui o de defaults; os omitidos herdam de defaults.
+    private Map<String, Settings> buildings = new HashMap<>();
+
+    /**
+     * Retorna a configuração de um prédio: os campos informados para o prédio sobrepostos aos de defaults.
+     *
+     * @param building Nome do prédio.
+     * @return A configuração completa do prédio.
+     */
+    public Settings getSettingsOf(String building) {
+        var overrides = buildings.get(building);
+        if (overrides == null) {
+            return defaults;
+        }
+
+        var settings = new Settings();
+        var target = new BeanWrapperImpl(settings);
+        var source = new BeanWrapperImpl(overrides);
+        var fallback = new BeanWrapperImpl(defaults);
+
+        for (var property : target.getPropertyDescriptors()) {
+            var name = property.getName();
+            if (target.isWritableProperty(name)) {
+                var value = source.getPropertyValue(name);
+                target.setPropertyValue(name, value != null ? value : fallback.getPropertyValue(name));
+            }
+        }
+
+        return settings;
+    }
+
+    @Data
+    public static class Settings {
+
+        // Tempo máximo para estabelecer a conexão com a API externa.
+        private Duration connectTimeout;
+
+        // Tempo máximo sem receber dados da resposta depois de enviada a requisição.
+        private Duration readTimeout;
+
+        // Tempo máximo de uma tentativa completa, incluindo a leitura do corpo.
+        private Duration requestTimeout;
+
+        // Quantidade máxima de tentativas de cada requisição (1 desativa as retentativas).
+        private Integer maxAttempts;
+
+        // Espera antes da primeira retentativa; dobra a cada nova tentativa.
+        private Duration minBackoff;
+
+        // Espera máxima entre duas tentativas.
+        private Duration maxBackoff;
+
+        // Fator de aleatoriedade aplicado às esperas (0 a 1).
+        private Double jitter;
+
+        // Percentual de falhas que abre o circuito.
+        private Float failureRateThreshold;
+
+        // Quantidade de chamadas consideradas no cálculo do percentual de falhas.
+        private Integer slidingWindowSize;
+
+        // Quantidade mínima de chamadas antes de calcular o percentual de falhas.
+        private Integer minimumNumberOfCalls;
+
+        // Tempo que o circuito permanece aberto antes de permitir chamadas de teste.
+        private Duration waitDurationInOpenState;
+
+        // Quantidade de chamadas de teste permitidas com o circuito semiaberto.
+        private Integer permittedCallsInHalfOpenState;
+
+        // Atraso para disparar uma segunda requisição igual quando a primeira demora (vazio ou 0 desativa).
+        private Duration hedgeDelay;
+
+        /**
+         * @return Configuração com os valores padrão de cada campo.
+         */
+        public static Settings standard() {
+            var settings = new Settings();
+            settings.connectTimeout = Duration.ofSeconds(5);
+            settings.readTimeout = Duration.ofSeconds(30);
+            settings.requestTimeout = Duration.ofSeconds(60);
+            settings.maxAttempts = 3;
+            settings.minBackoff = Duration.ofMillis(500);
+            settings.maxBackoff = Duration.ofSeconds(10);
+            settings.jitter = 0.5;
+            settings.failureRateThreshold = 50f;
+            settings.slidingWindowSize = 20;
+            settings.minimumNumberOfCalls = 10;
+            settings.waitDurationInOpenState = Duration.ofSeconds(60);
+            settings.permittedCallsInHalfOpenState = 2;
+            return settings;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import br.com.inovatech.powerguard.infra.cache.SnapshotFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "energy.cache.snapshot")
+@Data
+public class SnapshotEnvironmentConfig {
+
+    // Formato usado pelas chaves sem formato próprio.
+    private SnapshotFormat defaultFormat = SnapshotFormat.BINARY;
+
+    // Formatos por chave de cache (ex.: minha-chave: JSON).
+    private Map<String, SnapshotFormat> formats = new HashMap<>();
+
+    // Janela de leituras mantida no snapshot; leituras mais antigas são removidas a cada atualização.
+    private Duration window = Duration.ofHours(24);
+
+    // Intervalo entre as ressincronizações das janelas em memória com o Redis, cobrindo mensagens perdidas do canal de leituras.
+    private Duration resyncInterval = Duration.ofHours(1);
+
+    // Intervalo entre as reconciliações do snapshot de cada prédio com o banco, cobrindo leituras gravadas que não chegaram ao snapshot.
+    private Duration reseedInterval = Duration.ofHours(1);
+
+    public SnapshotFormat getFormatOf(String key) {
+        return formats.getOrDefault(key, defaultFormat);
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "energy.storage")
+@Data
+public class StorageEnvironmentConfig {
+
+    // Modo de armazenamento da coleção de energia.
+    private StorageMode mode = StorageMode.STANDARD;
+
+    // Granularidade da coleção time-series, de acordo com o intervalo entre as leituras.
+    private Granularity granularity = Granularity.MINUTES;
+
+    // Migra a coleção comum existente para time-series ao iniciar a aplicação.
+    private boolean migrate = false;
+
+    // Nome dado à coleção comum antiga após a migração.
+    private String legacyCollection = "energy_legacy";
+
+    // Quantidade de documentos copiados por lote durante a migração.
+    private int migrationBatchSize = 1000;
+
+    // Validade da trava da migração; renovada a cada lote copiado.
+    private Duration migrationLockTtl = Duration.ofMinutes(2);
+
+    // Intervalo entre as tentativas de preparar a coleção, enquanto outra réplica migra ou após uma falha.
+    private Duration migrationRetryInterval = Duration.ofSeconds(10);
+
+    public boolean isTimeSeries() {
+        return mode == StorageMode.TIME_SERIES;
+    }
+
+    public enum StorageMode {
+        STANDARD, TIME_SERIES
+    }
+}
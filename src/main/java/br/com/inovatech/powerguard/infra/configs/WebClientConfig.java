@@ -2,14 +2,51 @@ package br.com.inovatech.powerguard.infra.configs;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * Configuração do cliente HTTP usado para acessar a API externa de monitoramento.
+ *
+ * Todos os prédios compartilham um único pool de conexões, configurado por external.api.client,
+ * de forma que as buscas paginadas de cada ciclo reutilizam as conexões (e sessões TLS) abertas
+ * em vez de estabelecer novas conexões a cada requisição.
+ */
 @Configuration
 public class WebClientConfig {
 
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider externalApiConnectionProvider(WebClientEnvironmentConfig clientConfig) {
+        return ConnectionProvider.builder("external-api")
+                .maxConnections(clientConfig.getMaxConnections())
+                .pendingAcquireMaxCount(clientConfig.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(clientConfig.getPendingAcquireTimeout())
+                .maxIdleTime(clientConfig.getMaxIdleTime())
+                .maxLifeTime(clientConfig.getMaxLifeTime())
+                .evictInBackground(clientConfig.getEvictionInterval())
+                .metrics(clientConfig.isMetrics())
+                .build();
+    }
+
+    @Bean
+    HttpClient httpClient(ConnectionProvider externalApiConnectionProvider, WebClientEnvironmentConfig clientConfig) {
+        return HttpClient.create(externalApiConnectionProvider)
+                .keepAlive(clientConfig.isKeepAlive())
+                .compress(clientConfig.isCompress())
+                .protocol(clientConfig.getProtocols().toArray(HttpProtocol[]::new))
+                // Remove a query (ex.: ?page=3) das tags para não criar uma métrica por página.
+                .metrics(clientConfig.isMetrics(), uri -> uri.split("\\?", 2)[0]);
+    }
+
     @Bean
-    WebClient webClient(WebClient.Builder builder){
-        return builder.build();
+    WebClient webClient(WebClient.Builder builder, HttpClient httpClient, WebClientEnvironmentConfig clientConfig){
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) clientConfig.getMaxInMemorySize().toBytes()))
+                .build();
     }
 
 }
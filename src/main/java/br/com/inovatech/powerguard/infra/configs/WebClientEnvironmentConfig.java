@@ -0,0 +1,49 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "external.api.client")
+@Data
+public class WebClientEnvironmentConfig {
+
+    // Quantidade máxima de conexões abertas com a API externa, somando todos os prédios.
+    private int maxConnections = 50;
+
+    // Quantidade máxima de requisições aguardando uma conexão livre.
+    private int pendingAcquireMaxCount = 500;
+
+    // Tempo máximo que uma requisição aguarda uma conexão livre.
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
+    // Tempo que uma conexão ociosa permanece no pool; deve ser menor que o timeout de keep-alive da API.
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    // Tempo máximo de vida de uma conexão, mesmo em uso.
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    // Intervalo da remoção, em segundo plano, das conexões ociosas ou expiradas.
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    // Mantém as conexões abertas entre as requisições (keep-alive).
+    private boolean keepAlive = true;
+
+    // Pede respostas comprimidas (Accept-Encoding: gzip) e as descomprime.
+    private boolean compress = true;
+
+    // Protocolos aceitos (HTTP11, H2 com TLS, H2C sem TLS).
+    private List<HttpProtocol> protocols = List.of(HttpProtocol.HTTP11);
+
+    // Tamanho máximo de uma resposta carregada em memória pelos codecs.
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(4);
+
+    // Publica as métricas do pool e das requisições no Micrometer.
+    private boolean metrics = true;
+}
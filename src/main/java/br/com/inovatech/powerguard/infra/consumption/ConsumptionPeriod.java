@@ -0,0 +1,69 @@
+package br.com.inovatech.powerguard.infra.consumption;
+
+import br.com.inovatech.powerguard.infra.exceptions.InvalidParameterException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Períodos dos acumuladores de consumo de energia, alinhados ao fuso horário da aplicação.
+ */
+public enum ConsumptionPeriod {
+    DAY, MONTH;
+
+    /**
+     * Retorna o primeiro dia do período que contém a data informada.
+     *
+     * @param date Data qualquer do período.
+     * @return O primeiro dia do período.
+     */
+    public LocalDate startOf(LocalDate date) {
+        return this == DAY ? date : date.withDayOfMonth(1);
+    }
+
+    /**
+     * Retorna o primeiro dia do período seguinte.
+     *
+     * @param start Primeiro dia do período.
+     * @return O primeiro dia do período seguinte.
+     */
+    public LocalDate next(LocalDate start) {
+        return this == DAY ? start.plusDays(1) : start.plusMonths(1);
+    }
+
+    /**
+     * Monta o ID do acumulador de um prédio no período que começa na data informada.
+     *
+     * @param building Nome do prédio.
+     * @param start    Primeiro dia do período.
+     * @return O ID do documento acumulador.
+     */
+    public String keyOf(String building, LocalDate start) {
+        return building + ":" + name() + ":" + start;
+    }
+
+    public static LocalDate dateOf(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    public static long millisOf(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Busca o período pelo nome, sem diferenciar maiúsculas e minúsculas.
+     *
+     * @param name Nome do período (ex.: "day").
+     * @return O período correspondente.
+     * @throws InvalidParameterException Se o nome não corresponder a nenhum período.
+     */
+    public static ConsumptionPeriod fromName(String name) {
+        for (var period : values()) {
+            if (period.name().equalsIgnoreCase(name)) {
+                return period;
+            }
+        }
+        throw new InvalidParameterException("Invalid period: " + name);
+    }
+}
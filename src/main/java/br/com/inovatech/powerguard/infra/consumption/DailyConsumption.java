@@ -0,0 +1,122 @@
+package br.com.inovatech.powerguard.infra.consumption;
+
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import lombok.Getter;
+import org.bson.Document;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consumo de energia de um prédio em um dia, obtido pela integração das potências entre
+ * leituras consecutivas pela regra do trapézio.
+ *
+ * Intervalos maiores que o intervalo máximo não são integrados: a sua duração é acumulada em
+ * gapMillis, e a duração integrada em coveredMillis. Intervalos que atravessam a virada do dia
+ * são divididos proporcionalmente entre os dias.
+ */
+@Getter
+final class DailyConsumption {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    private final LocalDate day;
+    private final Map<String, Double> energy = new LinkedHashMap<>();
+    private long coveredMillis;
+    private long gapMillis;
+
+    private DailyConsumption(LocalDate day) {
+        this.day = day;
+    }
+
+    /**
+     * Integra uma sequência de leituras e retorna o consumo dos dias de [from, to] atravessados
+     * por algum intervalo entre leituras. Para que o consumo de um dia seja completo, a sequência
+     * deve conter todas as leituras do dia, a última leitura anterior a ele e a primeira posterior.
+     *
+     * @param readings     Leituras do prédio ordenadas por timestamp; leituras sem timestamp ou
+     *                     com timestamp repetido são ignoradas.
+     * @param from         Primeiro dia calculado.
+     * @param to           Último dia calculado (inclusivo).
+     * @param maxGapMillis Intervalo máximo entre duas leituras para que seja integrado.
+     * @param unitFactor   Fator que converte as potências para kW/kVAr.
+     * @return Consumo por dia, ordenado por dia.
+     */
+    static Map<LocalDate, DailyConsumption> integrate(List<EnergyReading> readings, LocalDate from, LocalDate to,
+                                                      long maxGapMillis, double unitFactor) {
+        Map<LocalDate, DailyConsumption> days = new TreeMap<>();
+        EnergyReading previous = null;
+
+        for (var reading : readings) {
+            if (reading.timestamp() == EnergyReading.NO_TIME
+                    || previous != null && reading.timestamp() <= previous.timestamp()) {
+                continue;
+            }
+            if (previous != null) {
+                integrate(previous, reading, from, to, maxGapMillis, unitFactor, days);
+            }
+            previous = reading;
+        }
+
+        return Collections.unmodifiableMap(days);
+    }
+
+    /**
+     * Integra o intervalo entre duas leituras consecutivas, dividindo-o entre os dias que atravessa.
+     */
+    private static void integrate(EnergyReading previous, EnergyReading current, LocalDate from, LocalDate to,
+                                  long maxGapMillis, double unitFactor, Map<LocalDate, DailyConsumption> days) {
+        long start = previous.timestamp();
+        long end = current.timestamp();
+        boolean gap = end - start > maxGapMillis;
+
+        while (start < end) {
+            var day = ConsumptionPeriod.dateOf(start);
+            long sliceEnd = Math.min(end, ConsumptionPeriod.millisOf(day.plusDays(1)));
+            long sliceMillis = sliceEnd - start;
+            start = sliceEnd;
+
+            if (day.isBefore(from) || day.isAfter(to)) {
+                continue;
+            }
+
+            var consumption = days.computeIfAbsent(day, DailyConsumption::new);
+
+            if (gap) {
+                consumption.gapMillis += sliceMillis;
+                continue;
+            }
+
+            consumption.coveredMillis += sliceMillis;
+            double hours = sliceMillis / MILLIS_PER_HOUR;
+            EnergyConsumptionIntegrator.CHANNELS.forEach((measurement, field) -> {
+                double a = previous.get(measurement);
+                double b = current.get(measurement);
+                if (!Double.isNaN(a) && !Double.isNaN(b)) {
+                    consumption.energy.merge(field, (a + b) / 2 * hours * unitFactor, Double::sum);
+                }
+            });
+        }
+    }
+
+    /**
+     * Monta o documento do acumulador diário de um prédio.
+     *
+     * @param building Nome do prédio.
+     * @return Documento completo, que substitui o documento gravado anteriormente.
+     */
+    Document toDocument(String building) {
+        return new Document("_id", ConsumptionPeriod.DAY.keyOf(building, day))
+                .append("building", building)
+                .append("period", ConsumptionPeriod.DAY.name())
+                .append("start", new Date(ConsumptionPeriod.millisOf(day)))
+                .append("coveredMillis", coveredMillis)
+                .append("gapMillis", gapMillis)
+                .append("energy", new Document(energy));
+    }
+}
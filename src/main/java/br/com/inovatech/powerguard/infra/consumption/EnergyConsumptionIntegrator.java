@@ -0,0 +1,192 @@
+package br.com.inovatech.powerguard.infra.consumption;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.infra.configs.ConsumptionEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.Measurement;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Integrador do consumo de energia (kWh/kVArh) de cada prédio.
+ *
+ * Integra as potências ativa e reativa (por fase e total) entre leituras consecutivas pela regra
+ * do trapézio e grava o resultado em documentos por dia e por mês, de modo que o consumo de um
+ * dia ou mês é lido em O(1), sem percorrer o histórico. O tratamento de lacunas e da virada do
+ * dia está descrito em DailyConsumption.
+ *
+ * Os acumuladores são recalculados a partir da coleção de energia: cada dia afetado é integrado
+ * novamente com todas as suas leituras (e as leituras vizinhas da virada do dia) e substituído,
+ * e cada mês afetado é a soma dos seus dias. Como o resultado depende apenas das leituras
+ * gravadas, o recálculo é idempotente e pode ser repetido após uma falha parcial da ingestão,
+ * usado na reconciliação periódica e no preenchimento do histórico.
+ */
+@Component
+public class EnergyConsumptionIntegrator {
+
+    public static final String COLLECTION = "energy_consumption";
+
+    // Canais integrados: grandeza de potência -> campo de energia acumulado.
+    public static final Map<Measurement, String> CHANNELS = channels();
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private ConsumptionEnvironmentConfig consumptionConfig;
+
+    /**
+     * Recalcula os dias e meses afetados pelas leituras recém-inseridas de um prédio: os dias
+     * entre a leitura anterior à mais antiga e a leitura posterior à mais recente.
+     *
+     * @param building Nome do prédio.
+     * @param readings Leituras recém-inseridas, em qualquer ordem.
+     * @return Mono<Void> indicando a conclusão da gravação.
+     */
+    public Mono<Void> refresh(String building, List<EnergyReading> readings) {
+        var range = readings.stream()
+                .mapToLong(EnergyReading::timestamp)
+                .filter(timestamp -> timestamp != EnergyReading.NO_TIME)
+                .summaryStatistics();
+
+        if (range.getCount() == 0) {
+            return Mono.empty();
+        }
+
+        var from = lastBefore(building, range.getMin())
+                .map(EnergyReading::timestamp)
+                .defaultIfEmpty(range.getMin());
+        var to = firstFrom(building, range.getMax() + 1)
+                .map(EnergyReading::timestamp)
+                .defaultIfEmpty(range.getMax());
+
+        return Mono.zip(from, to)
+                .flatMap(bounds -> recompute(building,
+                        ConsumptionPeriod.dateOf(bounds.getT1()), ConsumptionPeriod.dateOf(bounds.getT2())));
+    }
+
+    /**
+     * Recalcula os acumuladores diários de [from, to] de um prédio e os mensais que os contêm.
+     *
+     * @param building Nome do prédio.
+     * @param from     Primeiro dia recalculado.
+     * @param to       Último dia recalculado (inclusivo).
+     * @return Mono<Void> indicando a conclusão da gravação.
+     */
+    public Mono<Void> recompute(String building, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return Mono.empty();
+        }
+
+        var start = ConsumptionPeriod.millisOf(from);
+        var end = ConsumptionPeriod.millisOf(to.plusDays(1));
+        var query = Query.query(Criteria.where("building").is(building)
+                        .and("timestamp").gte(new Date(start)).lt(new Date(end)))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"));
+
+        return Flux.concat(
+                        lastBefore(building, start),
+                        mongoTemplate.find(query, EnergyDomain.class).map(EnergyReading::from),
+                        firstFrom(building, end))
+                .collectList()
+                .map(readings -> DailyConsumption.integrate(readings, from, to,
+                        consumptionConfig.getMaxGap().toMillis(), consumptionConfig.getPowerUnitFactor()))
+                .flatMap(days -> writeDays(building, days.values()))
+                .thenMany(Flux.fromStream(Stream.iterate(ConsumptionPeriod.MONTH.startOf(from),
+                        month -> !month.isAfter(to), ConsumptionPeriod.MONTH::next)))
+                .concatMap(month -> recomputeMonth(building, month))
+                .then();
+    }
+
+    private Mono<Void> writeDays(String building, Iterable<DailyConsumption> days) {
+        var bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+        var empty = true;
+
+        for (var day : days) {
+            var document = day.toDocument(building);
+            bulkOperations.replaceOne(Query.query(Criteria.where("_id").is(document.get("_id"))), document,
+                    FindAndReplaceOptions.options().upsert());
+            empty = false;
+        }
+
+        return empty ? Mono.empty() : bulkOperations.execute().then();
+    }
+
+    /**
+     * Substitui o acumulador mensal pela soma dos acumuladores diários do mês, selecionados pelo
+     * intervalo de IDs (que terminam na data ISO do dia e, portanto, são ordenados por data).
+     */
+    private Mono<Void> recomputeMonth(String building, LocalDate month) {
+        var group = new Document("_id", null)
+                .append("coveredMillis", new Document("$sum", "$coveredMillis"))
+                .append("gapMillis", new Document("$sum", "$gapMillis"));
+        var energy = new Document();
+
+        CHANNELS.values().forEach(field -> {
+            group.append(field, new Document("$sum", "$energy." + field));
+            energy.append(field, "$" + field);
+        });
+
+        var pipeline = List.of(
+                new Document("$match", new Document("_id", new Document("$gte", ConsumptionPeriod.DAY.keyOf(building, month))
+                        .append("$lt", ConsumptionPeriod.DAY.keyOf(building, ConsumptionPeriod.MONTH.next(month))))),
+                new Document("$group", group),
+                new Document("$project", new Document("_id", new Document("$literal", ConsumptionPeriod.MONTH.keyOf(building, month)))
+                        .append("building", new Document("$literal", building))
+                        .append("period", new Document("$literal", ConsumptionPeriod.MONTH.name()))
+                        .append("start", new Document("$literal", new Date(ConsumptionPeriod.millisOf(month))))
+                        .append("coveredMillis", 1)
+                        .append("gapMillis", 1)
+                        .append("energy", energy)),
+                new Document("$merge", new Document("into", COLLECTION)
+                        .append("on", "_id")
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+
+        return mongoTemplate.getCollection(COLLECTION)
+                .flatMap(collection -> Flux.from(collection.aggregate(pipeline).toCollection()).then());
+    }
+
+    private Mono<EnergyReading> lastBefore(String building, long millis) {
+        var query = Query.query(Criteria.where("building").is(building).and("timestamp").lt(new Date(millis)))
+                .with(Sort.by(Sort.Direction.DESC, "timestamp"));
+
+        return mongoTemplate.findOne(query, EnergyDomain.class).map(EnergyReading::from);
+    }
+
+    private Mono<EnergyReading> firstFrom(String building, long millis) {
+        var query = Query.query(Criteria.where("building").is(building).and("timestamp").gte(new Date(millis)))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"));
+
+        return mongoTemplate.findOne(query, EnergyDomain.class).map(EnergyReading::from);
+    }
+
+    private static Map<Measurement, String> channels() {
+        Map<Measurement, String> channels = new LinkedHashMap<>();
+        channels.put(Measurement.POT_ATIVA_A, "kwha");
+        channels.put(Measurement.POT_ATIVA_B, "kwhb");
+        channels.put(Measurement.POT_ATIVA_C, "kwhc");
+        channels.put(Measurement.POT_ATIVA_TOTAL, "kwhtotal");
+        channels.put(Measurement.POT_REATIVA_A, "kvarha");
+        channels.put(Measurement.POT_REATIVA_B, "kvarhb");
+        channels.put(Measurement.POT_REATIVA_C, "kvarhc");
+        channels.put(Measurement.POT_REATIVA_TOTAL, "kvarhtotal");
+        return channels;
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.inovatech.powerguard.infra.coordination;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Anel de hash consistente que distribui chaves (nomes de prédios) entre as réplicas ativas.
+ *
+ * Cada réplica ocupa vários pontos do anel; uma chave pertence à réplica do primeiro ponto
+ * igual ou posterior ao seu hash. Quando uma réplica entra ou sai, apenas as chaves dos seus
+ * pontos mudam de dono. O resultado depende somente dos membros, portanto todas as réplicas
+ * que enxergam o mesmo conjunto de membros chegam ao mesmo dono.
+ */
+final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    private final List<String> members;
+
+    ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        this.members = members.stream().sorted().distinct().toList();
+
+        this.members.forEach(member -> {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.putIfAbsent(hash(member + "#" + i), member);
+            }
+        });
+    }
+
+    /**
+     * @param key Chave a ser distribuída.
+     * @return A réplica dona da chave, ou null se o anel não possuir membros.
+     */
+    String ownerOf(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+
+        var point = points.ceilingEntry(hash(key));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    List<String> getMembers() {
+        return members;
+    }
+
+    private static long hash(String value) {
+        return ByteBuffer.wrap(DigestUtils.md5Digest(value.getBytes(StandardCharsets.UTF_8))).getLong();
+    }
+}
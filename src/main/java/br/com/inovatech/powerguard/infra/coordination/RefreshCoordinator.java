@@ -0,0 +1,320 @@
+package br.com.inovatech.powerguard.infra.coordination;
+
+import br.com.inovatech.powerguard.infra.configs.CoordinationEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.configs.CoordinationEnvironmentConfig.CoordinationMode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coordena entre as réplicas da aplicação quais prédios cada uma deve atualizar.
+ *
+ * A posse é representada por leases no Redis, adquiridos com SET NX PX e renovados por um
+ * script Lua que só estende o lease se ele ainda pertencer a esta réplica:
+ * - LEADER: uma única réplica detém o lease de líder e atualiza todos os prédios.
+ * - SHARDED: cada réplica se registra em um ZSET de membros (score = último heartbeat, medido
+ *   pelo relógio do Redis para não depender do relógio de cada réplica) e os prédios são
+ *   distribuídos por hash consistente entre os membros ativos. O dono de um prédio
+ *   ainda precisa adquirir o lease do prédio. O lease de um prédio com ciclo em andamento é
+ *   renovado até o fim do ciclo (complete), mesmo que o anel mude, de modo que o dono anterior
+ *   termine o seu ciclo (ou deixe o lease expirar) antes de o novo dono começar. Isso é
+ *   necessário porque a gravação na coleção time-series consulta os IDs existentes antes de
+ *   inserir e não conta com um índice único em _id: dois ciclos simultâneos do mesmo prédio
+ *   poderiam duplicar leituras.
+ * - NONE: sem coordenação; a réplica atualiza todos os prédios.
+ *
+ * Quando uma réplica para de enviar heartbeats, os seus leases expiram e ela sai do anel após
+ * lease-ttl, e os prédios são redistribuídos automaticamente. Se a réplica não conseguir renovar
+ * um lease dentro de lease-ttl (ex.: Redis indisponível), outra réplica pode assumir o prédio
+ * mesmo com um ciclo em andamento. Ao encerrar normalmente, a réplica
+ * libera os seus leases e sai do anel imediatamente.
+ */
+@Slf4j
+@Component
+public class RefreshCoordinator {
+
+    private static final RedisScript<Long> RENEW = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    // Registra o heartbeat com o relógio do Redis e remove os membros sem heartbeat dentro do prazo.
+    private static final RedisScript<Long> HEARTBEAT = RedisScript.of(
+            "local time = redis.call('time') "
+                    + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) "
+                    + "redis.call('zadd', KEYS[1], now, ARGV[1]) "
+                    + "return redis.call('zremrangebyscore', KEYS[1], '-inf', now - tonumber(ARGV[2]))",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    @Autowired
+    private ReactiveStringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private CoordinationEnvironmentConfig coordinationConfig;
+
+    // Leases detidos por esta réplica e o instante (System.nanoTime) até o qual são considerados válidos.
+    private final Map<String, Long> leases = new ConcurrentHashMap<>();
+
+    // Leases de prédios com ciclo em andamento, que não são liberados até o fim do ciclo.
+    // As decisões de posse sobre leases e inFlight são tomadas sob o monitor desta instância.
+    private final Set<String> inFlight = new HashSet<>();
+
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(List.of(), 0);
+
+    private String nodeId;
+
+    private Disposable heartbeat;
+
+    /**
+     * Define o identificador da réplica e inicia os heartbeats de coordenação.
+     *
+     * @throws IllegalStateException se o intervalo de heartbeat não for menor que a validade dos leases.
+     */
+    @PostConstruct
+    private void start() {
+        nodeId = coordinationConfig.getNodeId() == null || coordinationConfig.getNodeId().isBlank()
+                ? hostname() + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : coordinationConfig.getNodeId();
+
+        if (!isCoordinated()) {
+            return;
+        }
+
+        if (coordinationConfig.getHeartbeatInterval().compareTo(coordinationConfig.getLeaseTtl()) >= 0) {
+            throw new IllegalStateException("energy.refresh.coordination.heartbeat-interval must be shorter than lease-ttl");
+        }
+
+        log.info("Coordinating energy refresh in {} mode as node {}", coordinationConfig.getMode(), nodeId);
+
+        heartbeat = Flux.interval(Duration.ZERO, coordinationConfig.getHeartbeatInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> heartbeat()
+                        .onErrorResume(e -> {
+                            log.error("Failed to send refresh coordination heartbeat: {}", e.getMessage());
+                            return Mono.empty();
+                        }), 0)
+                .subscribe();
+    }
+
+    /**
+     * Interrompe os heartbeats, libera os leases desta réplica e a remove do anel, para que as
+     * demais assumam os seus prédios sem esperar a expiração.
+     */
+    @PreDestroy
+    private void stop() {
+        if (heartbeat == null) {
+            return;
+        }
+
+        heartbeat.dispose();
+
+        Flux.fromIterable(leases.keySet())
+                .flatMap(this::release)
+                .then(coordinationConfig.getMode() == CoordinationMode.SHARDED
+                        ? stringRedisTemplate.opsForZSet().remove(membersKey(), nodeId).then()
+                        : Mono.empty())
+                .timeout(Duration.ofSeconds(5))
+                .onErrorResume(e -> {
+                    log.warn("Failed to release refresh leases of node {}: {}", nodeId, e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    /**
+     * @return true se a atualização é coordenada entre réplicas (modo diferente de NONE).
+     */
+    public boolean isCoordinated() {
+        return coordinationConfig.getMode() != CoordinationMode.NONE;
+    }
+
+    /**
+     * Verifica, antes de cada ciclo de atualização, se esta réplica é a dona do prédio,
+     * adquirindo ou renovando o lease correspondente quando necessário. Quando retorna true,
+     * o ciclo passa a estar em andamento e deve ser encerrado com complete.
+     *
+     * @param building Nome do prédio.
+     * @return Mono<Boolean> com true se esta réplica deve atualizar o prédio.
+     */
+    public Mono<Boolean> tryAcquire(String building) {
+        return switch (coordinationConfig.getMode()) {
+            case NONE -> Mono.just(true);
+            case LEADER -> holds(leaderKey()) ? Mono.just(true) : acquireOrRenew(leaderKey());
+            case SHARDED -> {
+                var key = buildingKey(building);
+
+                synchronized (this) {
+                    if (!isOwner(key)) {
+                        yield release(key).thenReturn(false);
+                    }
+
+                    if (holds(key)) {
+                        inFlight.add(key);
+                        yield Mono.just(true);
+                    }
+                }
+
+                yield acquireOrRenew(key)
+                        .doOnNext(held -> {
+                            if (held) {
+                                synchronized (this) {
+                                    inFlight.add(key);
+                                }
+                            }
+                        });
+            }
+        };
+    }
+
+    /**
+     * Encerra o ciclo de atualização de um prédio iniciado por tryAcquire. No modo SHARDED,
+     * libera o lease se o prédio passou para outra réplica durante o ciclo.
+     *
+     * @param building Nome do prédio.
+     * @return Mono<Void> indicando a conclusão.
+     */
+    public Mono<Void> complete(String building) {
+        if (coordinationConfig.getMode() != CoordinationMode.SHARDED) {
+            return Mono.empty();
+        }
+
+        var key = buildingKey(building);
+
+        synchronized (this) {
+            inFlight.remove(key);
+            return isOwner(key) ? Mono.empty() : release(key);
+        }
+    }
+
+    /**
+     * Renova o lease de líder ou, no modo SHARDED, atualiza o registro da réplica, recalcula o
+     * anel e renova os leases dos prédios que continuam com esta réplica ou que ainda estão com
+     * um ciclo em andamento. Os demais leases são liberados.
+     */
+    private Mono<Void> heartbeat() {
+        if (coordinationConfig.getMode() == CoordinationMode.LEADER) {
+            return acquireOrRenew(leaderKey()).then();
+        }
+
+        return refreshMembers()
+                .thenMany(Flux.fromIterable(List.copyOf(leases.keySet())))
+                .flatMap(key -> {
+                    synchronized (this) {
+                        return isOwner(key) || inFlight.contains(key) ? acquireOrRenew(key).then() : release(key);
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Registra o heartbeat desta réplica no ZSET de membros, remove os membros sem heartbeat
+     * dentro de lease-ttl e recalcula o anel com os membros restantes.
+     */
+    private Mono<Void> refreshMembers() {
+        return stringRedisTemplate.execute(HEARTBEAT, List.of(membersKey()),
+                        List.of(nodeId, String.valueOf(coordinationConfig.getLeaseTtl().toMillis())))
+                .thenMany(stringRedisTemplate.opsForZSet().range(membersKey(), Range.unbounded()))
+                .collectList()
+                .doOnNext(members -> {
+                    var updated = new ConsistentHashRing(members, coordinationConfig.getVirtualNodes());
+
+                    if (!updated.getMembers().equals(ring.getMembers())) {
+                        log.info("Energy refresh ring members changed: {}", updated.getMembers());
+                    }
+
+                    ring = updated;
+                })
+                .then();
+    }
+
+    /**
+     * Renova o lease se ele pertencer a esta réplica ou o adquire se estiver livre.
+     *
+     * @param key Chave do lease.
+     * @return Mono<Boolean> com true se esta réplica detém o lease.
+     */
+    private Mono<Boolean> acquireOrRenew(String key) {
+        var started = System.nanoTime();
+        var ttl = coordinationConfig.getLeaseTtl();
+
+        return stringRedisTemplate.execute(RENEW, List.of(key), List.of(nodeId, String.valueOf(ttl.toMillis())))
+                .next()
+                .flatMap(renewed -> renewed == 1L
+                        ? Mono.just(true)
+                        : stringRedisTemplate.opsForValue().setIfAbsent(key, nodeId, ttl))
+                .doOnNext(held -> {
+                    if (held) {
+                        if (leases.put(key, started + ttl.toNanos()) == null) {
+                            log.info("Node {} acquired refresh lease {}", nodeId, key);
+                        }
+                    } else if (leases.remove(key) != null) {
+                        log.warn("Node {} lost refresh lease {}", nodeId, key);
+                    }
+                });
+    }
+
+    /**
+     * Libera o lease se ele ainda pertencer a esta réplica.
+     *
+     * @param key Chave do lease.
+     * @return Mono<Void> indicando a conclusão da liberação.
+     */
+    private Mono<Void> release(String key) {
+        if (leases.remove(key) == null) {
+            return Mono.empty();
+        }
+
+        log.info("Node {} released refresh lease {}", nodeId, key);
+        return stringRedisTemplate.execute(RELEASE, List.of(key), List.of(nodeId)).then();
+    }
+
+    private boolean isOwner(String buildingKey) {
+        return nodeId.equals(ring.ownerOf(buildingKey.substring(buildingKey("").length())));
+    }
+
+    private boolean holds(String key) {
+        var validUntil = leases.get(key);
+        return validUntil != null && validUntil - System.nanoTime() > 0;
+    }
+
+    private String leaderKey() {
+        return coordinationConfig.getKeyPrefix() + ":leader";
+    }
+
+    private String buildingKey(String building) {
+        return coordinationConfig.getKeyPrefix() + ":lease:" + building;
+    }
+
+    private String membersKey() {
+        return coordinationConfig.getKeyPrefix() + ":members";
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.inovatech.powerguard.infra.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String msg){
+        super(msg);
+    }
+}
@@ -86,4 +86,28 @@ public class CustomResponseEntityExceptionHandler extends ResponseEntityExceptio
 
         return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(exceptionsResponse));
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public Mono<ResponseEntity<ExceptionsResponse>> handleInvalidCursorException(Exception ex, ServerWebExchange exchange) {
+
+        var exceptionsResponse = ExceptionsResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .message(ex.getMessage())
+                .details(exchange.getRequest().getURI().toString())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exceptionsResponse));
+    }
+
+    @ExceptionHandler(InvalidParameterException.class)
+    public Mono<ResponseEntity<ExceptionsResponse>> handleInvalidParameterException(Exception ex, ServerWebExchange exchange) {
+
+        var exceptionsResponse = ExceptionsResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .message(ex.getMessage())
+                .details(exchange.getRequest().getURI().toString())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exceptionsResponse));
+    }
 }
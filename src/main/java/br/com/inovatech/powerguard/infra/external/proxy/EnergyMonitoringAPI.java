@@ -3,10 +3,17 @@ package br.com.inovatech.powerguard.infra.external.proxy;
 import br.com.inovatech.powerguard.dtos.EnergyDTO;
 import reactor.core.publisher.Flux;
 
+import java.util.function.Predicate;
+
 public interface EnergyMonitoringAPI {
 
-    Flux<EnergyDTO> getEnergyData();
+    Flux<EnergyDTO> getEnergyData(Predicate<EnergyDTO> alreadyIngested);
 
     String getBuildingName();
 
+    /**
+     * @return Sufixo que compõe, com o ID da API externa, o ID sintético dos dados de energia do prédio.
+     */
+    String getIdKey();
+
 }
@@ -1,29 +1,73 @@
 package br.com.inovatech.powerguard.infra.external.proxy;
 
 import br.com.inovatech.powerguard.dtos.EnergyDTO;
+import br.com.inovatech.powerguard.infra.configs.ResilienceEnvironmentConfig;
 import br.com.inovatech.powerguard.infra.exceptions.ExternalApiRequestException;
 import br.com.inovatech.powerguard.infra.exceptions.ExternalApiResponseException;
 import br.com.inovatech.powerguard.infra.external.dto.ApiResponseDTO;
 import br.com.inovatech.powerguard.infra.utils.PageUtils;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.util.retry.Retry;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Componente responsável por lidar com requisições externas à API de monitoramento de energia.
  * Utiliza o WebClient para realizar chamadas HTTP assíncronas e reativas, retornando os dados de energia.
+ * As páginas seguintes à primeira são decodificadas em fluxo pelo EnergyResultsDecoder, emitindo
+ * cada dado de energia enquanto o corpo ainda está chegando.
+ *
+ * Cada requisição é protegida, com configuração própria por prédio (external.api.resilience), por:
+ * - timeouts de conexão, de leitura e da tentativa completa;
+ * - retentativas com espera exponencial e aleatória para falhas de conexão, timeouts e respostas 5xx/429;
+ * - um circuit breaker que deixa de chamar a API do prédio enquanto ela está falhando;
+ * - opcionalmente, uma segunda requisição igual (hedge) disparada quando a primeira demora,
+ *   usando a resposta que chegar primeiro.
  */
+@Slf4j
 @Component
 public class EnergyRequestHandler {
 
     @Autowired
     private WebClient webClient;
 
+    @Autowired
+    private HttpClient httpClient;
+
+    @Autowired
+    private ResilienceEnvironmentConfig resilienceConfig;
+
+    @Autowired
+    private EnergyResultsDecoder energyResultsDecoder;
+
     @Value("${external.api.host}")
     private String HOST;
 
@@ -33,56 +77,216 @@ public class EnergyRequestHandler {
     @Value("${external.api.schema}")
     private String SCHEMA;
 
+    @Value("${external.api.paging.page-size}")
+    private int PAGE_SIZE;
+
+    @Value("${external.api.paging.max-pages}")
+    private int MAX_PAGES;
+
+    private final Map<String, BuildingClient> clients = new ConcurrentHashMap<>();
+
     /**
      * Faz uma requisição para obter os dados de energia de um endpoint específico.
-     * Inicialmente faz uma requisição sem paginação e, em seguida, caso o resultado
-     * contenha múltiplas páginas, faz uma segunda requisição para obter os dados da última página.
+     * Inicialmente faz uma requisição sem paginação para descobrir a contagem total e,
+     * em seguida, busca em paralelo (com concorrência limitada) as páginas restantes,
+     * da mais recente para a mais antiga. A busca é interrompida na primeira página
+     * cujos dados já foram todos ingeridos, permitindo recuperar as páginas perdidas
+     * após uma indisponibilidade sem reler todo o histórico.
      *
-     * @param endpoint O endpoint da API externa que será consultado.
+     * @param building        O nome do prédio, usado para escolher a configuração de resiliência.
+     * @param endpoint        O endpoint da API externa que será consultado.
+     * @param concurrency     Quantidade máxima de páginas buscadas em paralelo.
+     * @param alreadyIngested Predicado que indica se um dado de energia já foi ingerido.
      * @return Flux<EnergyDTO> Fluxo contendo os dados de energia obtidos da API.
      */
-    public Flux<EnergyDTO> getEnergyData(String endpoint) {
-        return makeRequest(endpoint, null)
-                .flatMapMany(response -> {
+    public Flux<EnergyDTO> getEnergyData(String building, String endpoint, int concurrency, Predicate<EnergyDTO> alreadyIngested) {
+        var client = clientOf(building);
+
+        return makeRequest(client, endpoint, null, response -> response.bodyToMono(ApiResponseDTO.class).flux())
+                .next()
+                .flatMapMany(firstResponse -> {
+
+                    var lastPage = PageUtils.getLastPage(firstResponse.getCount(), PAGE_SIZE);
 
-                    if (response == null) {
-                        return Flux.empty();
+                    if (lastPage == null || lastPage <= 1) {
+                        return Flux.fromIterable(firstResponse.getResults());
                     }
 
-                    var page = PageUtils.getLastPage(response.getCount());
+                    var firstPage = MAX_PAGES > 0 ? Math.max(1, lastPage - MAX_PAGES + 1) : 1;
+                    var stop = new AtomicBoolean(false);
 
-                    return makeRequest(endpoint, page)
-                            .flatMapMany(secondResponse -> Flux.fromIterable(secondResponse.getResults()));
+                    return Flux.range(0, lastPage - firstPage + 1)
+                            .map(offset -> lastPage - offset)
+                            .takeWhile(page -> !stop.get())
+                            .flatMapSequential(page -> {
+                                if (page == 1) {
+                                    if (firstResponse.getResults().stream().allMatch(alreadyIngested)) {
+                                        stop.set(true);
+                                    }
+                                    return Flux.fromIterable(firstResponse.getResults());
+                                }
+
+                                var allIngested = new AtomicBoolean(true);
+
+                                return makeRequest(client, endpoint, page,
+                                                response -> energyResultsDecoder.decode(response.bodyToFlux(DataBuffer.class)))
+                                        .doOnNext(energy -> {
+                                            if (allIngested.get() && !alreadyIngested.test(energy)) {
+                                                allIngested.set(false);
+                                            }
+                                        })
+                                        .doOnComplete(() -> {
+                                            if (allIngested.get()) {
+                                                stop.set(true);
+                                            }
+                                        });
+                            }, concurrency);
                 });
     }
 
     /**
      * Método auxiliar para realizar a requisição HTTP para a API externa.
-     * O método constrói a URI baseada nos parâmetros fornecidos e utiliza o WebClient para realizar
-     * a chamada e processar a resposta.
+     * Cada tentativa passa pelo circuit breaker do prédio e pode ser duplicada (hedge); as
+     * tentativas que falham por motivos transitórios são repetidas com espera exponencial.
+     * Como os corpos podem ser decodificados em fluxo, uma tentativa repetida pode reemitir
+     * dados já emitidos; a ingestão descarta os IDs repetidos. Corpos que não são um JSON válido
+     * não são repetidos e falham com ExternalApiResponseException.
      *
+     * @param client   Cliente e configuração de resiliência do prédio.
      * @param endpoint O endpoint da API externa.
      * @param page     (Opcional) Número da página a ser requisitada, se a API suportar paginação.
-     * @return Mono<ApiResponseDTO> Objeto Mono contendo a resposta da API externa.
+     * @param body     Decodifica o corpo da resposta.
+     * @return Flux<T> Fluxo com o conteúdo decodificado da resposta da API externa.
+     */
+    private <T> Flux<T> makeRequest(BuildingClient client, String endpoint, Integer page,
+                                    Function<WebClient.ResponseSpec, Flux<T>> body) {
+        var settings = client.settings();
+        var attempt = Flux.defer(() -> attempt(client, endpoint, page, body));
+
+        var hedged = settings.getHedgeDelay() == null || settings.getHedgeDelay().isZero()
+                ? attempt
+                : Flux.firstWithValue(attempt, Mono.delay(settings.getHedgeDelay()).thenMany(attempt));
+
+        return hedged
+                .retryWhen(Retry.backoff(Math.max(0, settings.getMaxAttempts() - 1), settings.getMinBackoff())
+                        .maxBackoff(settings.getMaxBackoff())
+                        .jitter(settings.getJitter())
+                        .filter(EnergyRequestHandler::isRetryable)
+                        .doBeforeRetry(signal -> log.warn("Retrying request to {} (attempt {}): {}",
+                                endpoint, signal.totalRetries() + 2, signal.failure().getMessage()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .onErrorMap(NoSuchElementException.class, EnergyRequestHandler::unwrap)
+                .onErrorMap(CallNotPermittedException.class, e -> new ExternalApiRequestException("The external API circuit is open"))
+                .onErrorMap(TimeoutException.class, e -> new ExternalApiRequestException("Timed out waiting for the external API"))
+                .onErrorMap(WebClientRequestException.class, e -> new ExternalApiRequestException("Failed to connect to the external API"))
+                .onErrorMap(WebClientResponseException.class, e -> new ExternalApiResponseException("Failed to get response to the external API"))
+                .onErrorMap(e -> e instanceof UncheckedIOException || e instanceof DecodingException,
+                        e -> new ExternalApiResponseException("Failed to parse the external API response"));
+    }
+
+    /**
+     * Realiza uma tentativa da requisição. O primeiro dado decodificado deve chegar dentro do
+     * timeout da tentativa e cada dado seguinte dentro do timeout de leitura, sem ultrapassar o
+     * prazo da tentativa completa: um corpo que continua chegando devagar também falha com
+     * TimeoutException ao atingir request-timeout.
      */
-    private Mono<ApiResponseDTO> makeRequest(String endpoint, Integer page) {
-            return webClient.get()
-                    .uri(uriBuilder -> {
-                        var uri = uriBuilder
-                                .scheme(SCHEMA)
-                                .host(HOST)
-                                .port(PORT)
-                                .path(endpoint);
-
-                        if (page != null) {
-                            uri.queryParam("page", page);
-                        }
-
-                        return uri.build();
-                    })
-                    .retrieve()
-                    .bodyToMono(ApiResponseDTO.class)
-                    .onErrorMap(WebClientRequestException.class, e -> new ExternalApiRequestException("Failed to connect to the external API"))
-                    .onErrorMap(WebClientResponseException.class, e -> new ExternalApiResponseException("Failed to get response to the external API"));
+    private <T> Flux<T> attempt(BuildingClient client, String endpoint, Integer page,
+                                Function<WebClient.ResponseSpec, Flux<T>> body) {
+        var settings = client.settings();
+
+        var response = client.webClient().get()
+                .uri(uriBuilder -> {
+                    var uri = uriBuilder
+                            .scheme(SCHEMA)
+                            .host(HOST)
+                            .port(PORT)
+                            .path(endpoint);
+
+                    if (page != null) {
+                        uri.queryParam("page", page);
+                    }
+
+                    return uri.build();
+                })
+                .httpRequest(request -> {
+                    HttpClientRequest nativeRequest = request.getNativeRequest();
+                    nativeRequest.responseTimeout(settings.getReadTimeout());
+                })
+                .retrieve();
+
+        var deadline = System.nanoTime() + settings.getRequestTimeout().toNanos();
+
+        return body.apply(response)
+                .timeout(Mono.delay(settings.getRequestTimeout()), item -> Mono.delay(untilNextItem(settings, deadline)))
+                .transformDeferred(CircuitBreakerOperator.of(client.circuitBreaker()));
+    }
+
+    /**
+     * Tempo máximo de espera pelo próximo dado: o timeout de leitura, limitado ao que resta do
+     * prazo da tentativa.
+     */
+    private static Duration untilNextItem(ResilienceEnvironmentConfig.Settings settings, long deadline) {
+        var remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+        return remaining.compareTo(settings.getReadTimeout()) < 0 ? remaining : settings.getReadTimeout();
+    }
+
+    /**
+     * Indica se a falha é transitória: falhas de conexão, timeouts, respostas 5xx e 429.
+     * Chamadas recusadas pelo circuito aberto e os demais erros 4xx não são repetidos.
+     */
+    private static boolean isRetryable(Throwable e) {
+        var failure = unwrap(e);
+
+        if (failure instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return failure instanceof WebClientRequestException
+                || failure instanceof TimeoutException
+                || failure instanceof ReadTimeoutException;
+    }
+
+    /**
+     * Quando as duas requisições do hedge falham, o Mono.firstWithValue emite um
+     * NoSuchElementException com as falhas agrupadas; retorna a primeira delas.
+     */
+    private static Throwable unwrap(Throwable e) {
+        if (e instanceof NoSuchElementException && e.getCause() != null) {
+            var failures = Exceptions.unwrapMultiple(e.getCause());
+            return failures.isEmpty() ? e : failures.get(0);
+        }
+        return e;
+    }
+
+    private BuildingClient clientOf(String building) {
+        return clients.computeIfAbsent(building, name -> {
+            var settings = resilienceConfig.getSettingsOf(name);
+
+            var buildingHttpClient = httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                    (int) settings.getConnectTimeout().toMillis());
+
+            var circuitBreaker = CircuitBreaker.of(name, CircuitBreakerConfig.custom()
+                    .failureRateThreshold(settings.getFailureRateThreshold())
+                    .slidingWindowSize(settings.getSlidingWindowSize())
+                    .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                    .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                    .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                    .ignoreException(e -> e instanceof WebClientResponseException response
+                            && response.getStatusCode().is4xxClientError()
+                            && response.getStatusCode().value() != 429)
+                    .build());
+
+            circuitBreaker.getEventPublisher()
+                    .onStateTransition(event -> log.warn("External API circuit of {} changed: {}",
+                            name, event.getStateTransition()));
+
+            return new BuildingClient(
+                    webClient.mutate().clientConnector(new ReactorClientHttpConnector(buildingHttpClient)).build(),
+                    circuitBreaker,
+                    settings);
+        });
+    }
+
+    private record BuildingClient(WebClient webClient, CircuitBreaker circuitBreaker,
+                                  ResilienceEnvironmentConfig.Settings settings) {
     }
 }
@@ -0,0 +1,134 @@
+package br.com.inovatech.powerguard.infra.external.proxy;
+
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodificador incremental das páginas da API externa.
+ *
+ * Em vez de carregar a página inteira em um ApiResponseDTO, alimenta um parser JSON não bloqueante
+ * com os buffers conforme eles chegam e emite cada elemento do array "results" como um EnergyDTO
+ * assim que o objeto é fechado. A memória usada fica limitada a um buffer de rede e a um registro,
+ * independentemente do tamanho da página.
+ */
+@Component
+class EnergyResultsDecoder {
+
+    private static final String RESULTS_FIELD = "results";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Decodifica o corpo de uma página da API externa.
+     *
+     * @param body Buffers do corpo da resposta, na ordem em que chegam.
+     * @return Flux<EnergyDTO> com os elementos do array "results", na ordem da página.
+     */
+    Flux<EnergyDTO> decode(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            var state = new ParserState();
+
+            return body.concatMapIterable(buffer -> {
+                        try {
+                            var bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            return state.feed(bytes);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(state.end())));
+        });
+    }
+
+    /**
+     * Estado do parser de uma resposta. Acompanha a profundidade do documento para reconhecer
+     * o array "results" do objeto raiz e copia os tokens de cada elemento para um TokenBuffer.
+     */
+    private final class ParserState {
+
+        private final JsonParser parser;
+        private int depth;
+        private boolean expectingResults;
+        private int resultsDepth = -1;
+        private TokenBuffer element;
+
+        private ParserState() {
+            try {
+                parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<EnergyDTO> feed(byte[] bytes) {
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<EnergyDTO> end() {
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<EnergyDTO> drain() throws IOException {
+            List<EnergyDTO> energies = new ArrayList<>();
+            JsonToken token;
+
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+
+                if (element != null) {
+                    element.copyCurrentEvent(parser);
+                    if (token == JsonToken.END_OBJECT && depth == resultsDepth) {
+                        energies.add(objectMapper.readValue(element.asParser(objectMapper), EnergyDTO.class));
+                        element = null;
+                    }
+                } else if (resultsDepth >= 0) {
+                    if (token == JsonToken.START_OBJECT && depth == resultsDepth + 1) {
+                        element = new TokenBuffer(objectMapper, false);
+                        element.copyCurrentEvent(parser);
+                    } else if (token == JsonToken.END_ARRAY && depth == resultsDepth - 1) {
+                        resultsDepth = -1;
+                    }
+                } else if (expectingResults) {
+                    expectingResults = false;
+                    if (token == JsonToken.START_ARRAY) {
+                        resultsDepth = depth;
+                    }
+                } else if (token == JsonToken.FIELD_NAME && depth == 1 && RESULTS_FIELD.equals(parser.currentName())) {
+                    expectingResults = true;
+                }
+            }
+
+            return energies;
+        }
+    }
+}
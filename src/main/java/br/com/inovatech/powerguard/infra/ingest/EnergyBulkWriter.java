@@ -0,0 +1,177 @@
+package br.com.inovatech.powerguard.infra.ingest;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.infra.configs.IngestEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.configs.StorageEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingDocuments;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Componente responsável por gravar as novas leituras de energia em lotes.
+ *
+ * Os dados são agrupados em blocos de tamanho configurável e gravados com operações
+ * em lote não ordenadas (bulk unordered) de upsert, usando o ID sintético como chave.
+ * Como o upsert só preenche os campos na inserção ($setOnInsert), gravar um ID já
+ * existente não altera o documento, dispensando a leitura prévia para deduplicação.
+ *
+ * No modo de armazenamento time-series, em que o upsert por _id não está disponível, cada lote
+ * consulta os IDs já gravados no intervalo de timestamps do lote (usando o índice por prédio e
+ * timestamp) e insere os demais com uma inserção em lote não ordenada.
+ */
+@Slf4j
+@Component
+public class EnergyBulkWriter {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private EnergyIdIndex energyIdIndex;
+
+    @Autowired
+    private IngestEnvironmentConfig ingestConfig;
+
+    @Autowired
+    private StorageEnvironmentConfig storageConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Grava as leituras de energia de um prédio em lotes de upsert.
+     *
+     * @param building Nome do prédio ao qual as leituras pertencem.
+     * @param energies Fluxo de leituras de energia com o ID sintético já definido.
+     * @return Flux<List<EnergyReading>> com as leituras efetivamente inseridas em cada lote, emitidas
+     * assim que o lote é gravado, para que os dados derivados sejam atualizados lote a lote.
+     */
+    public Flux<List<EnergyReading>> write(String building, Flux<EnergyReading> energies) {
+        return energies
+                .buffer(ingestConfig.getBatchSize())
+                .concatMap(chunk -> storageConfig.isTimeSeries() ? insertChunk(building, chunk) : writeChunk(building, chunk));
+    }
+
+    /**
+     * Executa um único lote de upserts e registra os IDs gravados no índice do prédio.
+     *
+     * @param building Nome do prédio ao qual as leituras pertencem.
+     * @param chunk    Lote de leituras de energia a ser gravado.
+     * @return Mono<List<EnergyReading>> com as leituras do lote que não existiam no banco.
+     */
+    private Mono<List<EnergyReading>> writeChunk(String building, List<EnergyReading> chunk) {
+        var bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EnergyDomain.class);
+
+        chunk.forEach(energy -> bulkOperations.upsert(
+                Query.query(Criteria.where("_id").is(energy.id())),
+                insertOnly(energy)));
+
+        return bulkOperations.execute()
+                .map(result -> {
+                    chunk.forEach(energy -> energyIdIndex.register(building, energy.id()));
+
+                    return result.getUpserts().stream()
+                            .map(BulkWriteUpsert::getIndex)
+                            .map(chunk::get)
+                            .toList();
+                });
+    }
+
+    /**
+     * Insere um lote de leituras em uma coleção time-series, descartando as que já existem no banco.
+     * Leituras sem timestamp não podem ser gravadas em uma coleção time-series: são descartadas,
+     * registradas no índice (para não serem buscadas novamente) e contadas na métrica
+     * energy.ingest.dropped.
+     *
+     * @param building Nome do prédio ao qual as leituras pertencem.
+     * @param chunk    Lote de leituras de energia a ser gravado.
+     * @return Mono<List<EnergyReading>> com as leituras do lote que não existiam no banco.
+     */
+    private Mono<List<EnergyReading>> insertChunk(String building, List<EnergyReading> chunk) {
+        var writable = chunk.stream()
+                .filter(energy -> energy.timestamp() != EnergyReading.NO_TIME)
+                .toList();
+
+        if (writable.size() < chunk.size()) {
+            var dropped = chunk.size() - writable.size();
+
+            chunk.stream()
+                    .filter(energy -> energy.timestamp() == EnergyReading.NO_TIME)
+                    .forEach(energy -> energyIdIndex.register(building, energy.id()));
+
+            Counter.builder("energy.ingest.dropped")
+                    .tag("building", building)
+                    .tag("reason", "no_timestamp")
+                    .register(meterRegistry)
+                    .increment(dropped);
+
+            log.warn("Dropped {} energy readings without timestamp of building {}", dropped, building);
+        }
+
+        if (writable.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        var range = writable.stream().mapToLong(EnergyReading::timestamp).summaryStatistics();
+        var query = Query.query(Criteria.where("building").is(building)
+                .and("timestamp").gte(new Date(range.getMin())).lte(new Date(range.getMax())));
+        query.fields().include("_id");
+
+        var collection = mongoTemplate.getCollectionName(EnergyDomain.class);
+
+        return mongoTemplate.find(query, Document.class, collection)
+                .map(document -> String.valueOf(document.get("_id")))
+                .collect(Collectors.toSet())
+                .flatMap(existing -> {
+                    var fresh = writable.stream()
+                            .filter(energy -> !existing.contains(energy.id()))
+                            .toList();
+
+                    var insert = fresh.isEmpty()
+                            ? Mono.empty()
+                            : mongoTemplate.getCollection(collection)
+                            .flatMap(target -> Mono.from(target.insertMany(
+                                    fresh.stream().map(EnergyReadingDocuments::toDocument).toList(),
+                                    new InsertManyOptions().ordered(false))));
+
+                    return insert
+                            .doOnSuccess(result -> writable.forEach(energy -> energyIdIndex.register(building, energy.id())))
+                            .thenReturn(fresh);
+                });
+    }
+
+    /**
+     * Monta a atualização que preenche todos os campos do documento apenas na inserção.
+     *
+     * @param energy Leitura de energia a ser gravada.
+     * @return Update com $setOnInsert para cada campo do documento.
+     */
+    private Update insertOnly(EnergyReading energy) {
+        var update = new Update();
+        EnergyReadingDocuments.toDocument(energy).forEach((field, value) -> {
+            if (!"_id".equals(field)) {
+                update.setOnInsert(field, value);
+            }
+        });
+
+        return update;
+    }
+}
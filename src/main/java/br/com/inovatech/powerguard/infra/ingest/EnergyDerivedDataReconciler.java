@@ -0,0 +1,180 @@
+package br.com.inovatech.powerguard.infra.ingest;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.infra.configs.DerivedDataEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.consumption.ConsumptionPeriod;
+import br.com.inovatech.powerguard.infra.consumption.EnergyConsumptionIntegrator;
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.rollups.EnergyRollupWriter;
+import br.com.inovatech.powerguard.infra.storage.EnergyCollectionMigrator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Mantém os dados derivados da coleção de energia (agregados e consumo) de cada prédio.
+ *
+ * Os dados derivados são recalculados a partir das leituras gravadas, então cada operação é
+ * idempotente:
+ * - apply: recalcula os intervalos afetados por um lote recém-gravado, lote a lote;
+ * - reconcileIfDue: recalcula a janela recente (energy.derived.reconcile-window) a cada
+ *   reconcile-interval, no primeiro ciclo após iniciar ou assumir o prédio e no ciclo seguinte a
+ *   uma falha de apply (a partir da leitura mais antiga do lote que falhou). Assim, leituras
+ *   gravadas cujo lote falhou antes de atualizar os dados derivados são incorporadas depois,
+ *   mesmo já estando no índice de IDs;
+ * - backfill (energy.derived.backfill): recalcula todo o histórico uma única vez, em etapas de
+ *   backfill-batch-days dias, registrando o progresso em energy_migrations para retomar após
+ *   reinícios.
+ */
+@Slf4j
+@Component
+public class EnergyDerivedDataReconciler {
+
+    private static final String BACKFILL_PREFIX = "derived-backfill:";
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private EnergyRollupWriter energyRollupWriter;
+
+    @Autowired
+    private EnergyConsumptionIntegrator energyConsumptionIntegrator;
+
+    @Autowired
+    private DerivedDataEnvironmentConfig derivedConfig;
+
+    // Momento (System.nanoTime) da última reconciliação concluída de cada prédio.
+    private final Map<String, Long> lastReconciled = new ConcurrentHashMap<>();
+
+    // Timestamp da leitura mais antiga cujos dados derivados falharam e ainda não foram reconciliados.
+    private final Map<String, Long> pendingSince = new ConcurrentHashMap<>();
+
+    /**
+     * Recalcula os agregados e o consumo afetados por um lote de leituras recém-gravadas.
+     * Em caso de falha, o intervalo do lote é reconciliado no próximo ciclo.
+     *
+     * @param building Nome do prédio.
+     * @param readings Leituras recém-gravadas.
+     * @return Mono<Void> indicando a conclusão da gravação.
+     */
+    public Mono<Void> apply(String building, List<EnergyReading> readings) {
+        return energyRollupWriter.refresh(building, readings)
+                .then(energyConsumptionIntegrator.refresh(building, readings))
+                .doOnError(e -> readings.stream()
+                        .mapToLong(EnergyReading::timestamp)
+                        .filter(timestamp -> timestamp != EnergyReading.NO_TIME)
+                        .min()
+                        .ifPresent(oldest -> pendingSince.merge(building, oldest, Math::min)));
+    }
+
+    /**
+     * Reconcilia os dados derivados do prédio com a coleção de energia, se a última reconciliação
+     * for mais antiga que reconcile-interval ou se houver um lote pendente. Na primeira execução
+     * com backfill habilitado, preenche antes todo o histórico do prédio.
+     *
+     * @param building Nome do prédio.
+     * @return Mono<Void> indicando a conclusão da reconciliação.
+     */
+    public Mono<Void> reconcileIfDue(String building) {
+        var started = System.nanoTime();
+        var last = lastReconciled.get(building);
+        var pending = pendingSince.get(building);
+
+        if (pending == null && last != null && started - last < derivedConfig.getReconcileInterval().toNanos()) {
+            return Mono.empty();
+        }
+
+        var now = System.currentTimeMillis();
+        var from = now - derivedConfig.getReconcileWindow().toMillis();
+
+        return (derivedConfig.isBackfill() ? backfill(building) : Mono.<Void>empty())
+                .then(reconcile(building, pending == null ? from : Math.min(from, pending), now))
+                .doOnSuccess(result -> {
+                    lastReconciled.put(building, started);
+                    if (pending != null) {
+                        pendingSince.remove(building, pending);
+                    }
+                    log.info("Reconciled derived energy data of building {}", building);
+                });
+    }
+
+    /**
+     * Força a reconciliação do prédio no próximo ciclo. Usado quando a réplica assume a
+     * atualização de um prédio, cujos dados derivados podem ter ficado incompletos na réplica anterior.
+     *
+     * @param building Nome do prédio.
+     */
+    public void scheduleReconcile(String building) {
+        lastReconciled.remove(building);
+    }
+
+    private Mono<Void> reconcile(String building, long from, long to) {
+        return energyRollupWriter.recompute(building, from, to)
+                .then(energyConsumptionIntegrator.recompute(building,
+                        ConsumptionPeriod.dateOf(from), ConsumptionPeriod.dateOf(to)));
+    }
+
+    /**
+     * Recalcula todo o histórico do prédio em etapas, a partir do dia seguinte à última etapa
+     * concluída ou do dia da leitura mais antiga.
+     */
+    private Mono<Void> backfill(String building) {
+        var id = BACKFILL_PREFIX + building;
+        var today = ConsumptionPeriod.dateOf(System.currentTimeMillis());
+        var step = Math.max(1, derivedConfig.getBackfillBatchDays());
+
+        return mongoTemplate.findById(id, Document.class, EnergyCollectionMigrator.MIGRATIONS)
+                .defaultIfEmpty(new Document())
+                .flatMap(state -> {
+                    if (state.getBoolean("completed", false)) {
+                        return Mono.empty();
+                    }
+
+                    var resumed = state.getString("backfilledUntil");
+                    var start = resumed != null
+                            ? Mono.just(LocalDate.parse(resumed))
+                            : oldestReading(building).map(ConsumptionPeriod::dateOf);
+
+                    return start
+                            .doOnNext(day -> log.info("Backfilling derived energy data of building {} from {}", building, day))
+                            .flatMapMany(first -> Flux.fromStream(Stream.iterate(first, day -> !day.isAfter(today), day -> day.plusDays(step))))
+                            .concatMap(day -> {
+                                var next = day.plusDays(step);
+
+                                return reconcile(building, ConsumptionPeriod.millisOf(day), ConsumptionPeriod.millisOf(next) - 1)
+                                        .then(saveBackfill(id, Update.update("backfilledUntil", next.toString())));
+                            })
+                            .then(saveBackfill(id, Update.update("completed", true)))
+                            .doOnSuccess(result -> log.info("Backfilled derived energy data of building {}", building));
+                });
+    }
+
+    private Mono<Long> oldestReading(String building) {
+        var query = Query.query(Criteria.where("building").is(building).and("timestamp").ne(null))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"));
+
+        return mongoTemplate.findOne(query, EnergyDomain.class)
+                .map(EnergyReading::from)
+                .map(EnergyReading::timestamp);
+    }
+
+    private Mono<Void> saveBackfill(String id, Update update) {
+        return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(id)), update, EnergyCollectionMigrator.MIGRATIONS)
+                .then();
+    }
+}
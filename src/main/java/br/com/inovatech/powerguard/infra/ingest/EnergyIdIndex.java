@@ -0,0 +1,103 @@
+package br.com.inovatech.powerguard.infra.ingest;
+
+import br.com.inovatech.powerguard.infra.buildings.BuildingRegistry;
+import br.com.inovatech.powerguard.infra.configs.IngestEnvironmentConfig;
+import br.com.inovatech.powerguard.repositories.EnergyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória dos IDs de energia já persistidos, separado por prédio.
+ *
+ * Evita carregar a coleção inteira de energia a cada atualização: os IDs recentes
+ * ficam em memória (com capacidade limitada) e apenas os IDs desconhecidos de um lote
+ * seguem para a gravação em lote, que usa upsert e portanto tolera IDs já existentes.
+ */
+@Slf4j
+@Component
+public class EnergyIdIndex {
+
+    @Autowired
+    private EnergyRepository energyRepository;
+
+    @Autowired
+    private BuildingRegistry buildingRegistry;
+
+    @Autowired
+    private IngestEnvironmentConfig ingestConfig;
+
+    private final Map<String, Set<String>> idsByBuilding = new ConcurrentHashMap<>();
+
+    /**
+     * Verifica se o ID já foi registrado no índice do prédio.
+     *
+     * @param building Nome do prédio.
+     * @param id       ID sintético do dado de energia.
+     * @return true se o ID já estiver no índice.
+     */
+    public boolean contains(String building, String id) {
+        return idsOf(building).contains(id);
+    }
+
+    /**
+     * Registra um ID persistido no índice do prédio.
+     *
+     * @param building Nome do prédio.
+     * @param id       ID sintético do dado de energia.
+     */
+    public void register(String building, String id) {
+        idsOf(building).add(id);
+    }
+
+    /**
+     * Carrega no índice os IDs recentes de cada prédio ao iniciar a aplicação.
+     * Enquanto o carregamento não termina, os IDs desconhecidos continuam sendo
+     * resolvidos pelo upsert no banco, portanto a deduplicação permanece correta.
+     */
+    @PostConstruct
+    private void warmup() {
+        buildingRegistry.getBuildings().forEach(building -> warm(building.getBuildingName()).subscribe());
+    }
+
+    /**
+     * Carrega no índice os IDs recentes de um prédio. Usado também quando a réplica assume a
+     * atualização do prédio, já que os IDs gravados pela réplica anterior não passaram por este índice.
+     * Falhas são registradas em log e não interrompem a atualização.
+     *
+     * @param building Nome do prédio.
+     * @return Mono<Void> indicando a conclusão do carregamento.
+     */
+    public Mono<Void> warm(String building) {
+        var since = LocalDateTime.now().minusHours(ingestConfig.getIdIndexWarmupHours());
+
+        return energyRepository.findIdsByBuildingSince(building, since)
+                .doOnNext(energy -> register(building, energy.getId()))
+                .count()
+                .doOnNext(count -> log.info("Warmed energy id index for building {} with {} ids", building, count))
+                .then()
+                .onErrorResume(e -> {
+                    log.error("Failed to warm energy id index for building {}: {}", building, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Set<String> idsOf(String building) {
+        return idsByBuilding.computeIfAbsent(building, key -> Collections.synchronizedSet(
+                Collections.newSetFromMap(new LinkedHashMap<>() {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                        return size() > ingestConfig.getIdIndexCapacity();
+                    }
+                })));
+    }
+}
@@ -0,0 +1,201 @@
+package br.com.inovatech.powerguard.infra.ingest;
+
+import br.com.inovatech.powerguard.infra.buildings.BuildingRegistry;
+import br.com.inovatech.powerguard.infra.buildings.MonitoredBuilding;
+import br.com.inovatech.powerguard.infra.configs.RefreshEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.coordination.RefreshCoordinator;
+import br.com.inovatech.powerguard.infra.storage.EnergyCollectionMigrator;
+import br.com.inovatech.powerguard.services.EnergyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agendador responsável por disparar a atualização dos dados de energia de cada prédio.
+ *
+ * Cada prédio possui o seu próprio intervalo, com início deslocado por um atraso aleatório
+ * para que as chamadas à API externa não ocorram todas ao mesmo tempo. Os ciclos de um
+ * mesmo prédio nunca se sobrepõem: se um ciclo ainda estiver em andamento quando o próximo
+ * disparo ocorrer, o disparo é descartado. O agendamento só começa depois que a coleção de
+ * energia estiver pronta (incluindo a migração para time-series). Com várias réplicas, cada ciclo só é executado
+ * se o RefreshCoordinator confirmar que esta réplica é a dona do prédio.
+ *
+ * Métricas expostas por prédio:
+ * - energy.refresh.duration: duração de cada ciclo, com o resultado (success/error).
+ * - energy.refresh.lag: segundos desde a última atualização concluída com sucesso
+ *   (reportado apenas pela réplica dona do prédio).
+ * - energy.refresh.skipped: disparos descartados por haver um ciclo em andamento.
+ */
+@Slf4j
+@Component
+public class EnergyRefreshScheduler {
+
+    @Autowired
+    private EnergyService energyService;
+
+    @Autowired
+    private BuildingRegistry buildingRegistry;
+
+    @Autowired
+    private RefreshEnvironmentConfig refreshConfig;
+
+    @Autowired
+    private RefreshCoordinator refreshCoordinator;
+
+    @Autowired
+    private EnergyDerivedDataReconciler energyDerivedDataReconciler;
+
+    @Autowired
+    private EnergyIdIndex energyIdIndex;
+
+    @Autowired
+    private EnergyCollectionMigrator energyCollectionMigrator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    private Scheduler scheduler;
+
+    /**
+     * Inicia o agendamento de todos os prédios monitorados.
+     */
+    @PostConstruct
+    private void start() {
+        scheduler = Schedulers.newBoundedElastic(refreshConfig.getSchedulerThreads(),
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "energy-refresh");
+
+        buildingRegistry.getBuildings().forEach(building -> subscriptions.add(schedule(building)));
+    }
+
+    /**
+     * Cancela os agendamentos e libera o scheduler ao encerrar a aplicação.
+     */
+    @PreDestroy
+    private void stop() {
+        subscriptions.forEach(Disposable::dispose);
+        scheduler.dispose();
+    }
+
+    /**
+     * Agenda as atualizações periódicas de um prédio.
+     *
+     * @param building Prédio monitorado.
+     * @return Disposable que permite cancelar o agendamento.
+     */
+    private Disposable schedule(MonitoredBuilding building) {
+        var buildingName = building.getBuildingName();
+        var interval = building.getRefreshInterval();
+        var jitter = Duration.ofMillis(ThreadLocalRandom.current().nextLong(refreshConfig.getMaxJitter().toMillis() + 1));
+        var lastSuccess = new AtomicLong(System.currentTimeMillis());
+        var owned = new AtomicBoolean(!refreshCoordinator.isCoordinated());
+
+        Gauge.builder("energy.refresh.lag", lastSuccess,
+                        last -> owned.get() ? (System.currentTimeMillis() - last.get()) / 1000.0 : Double.NaN)
+                .tag("building", buildingName)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        var skipped = Counter.builder("energy.refresh.skipped")
+                .tag("building", buildingName)
+                .register(meterRegistry);
+
+        log.info("Scheduling energy refresh of building {} every {} starting in {}", buildingName, interval, jitter);
+
+        return energyCollectionMigrator.ready()
+                .thenMany(Flux.interval(jitter, interval, scheduler))
+                .onBackpressureDrop(tick -> {
+                    skipped.increment();
+                    log.warn("Skipping energy refresh of building {}: previous cycle still running", buildingName);
+                })
+                .concatMap(tick -> refresh(building, owned, lastSuccess), 0)
+                .subscribe();
+    }
+
+    /**
+     * Executa um ciclo de atualização de um prédio, registrando a duração e o resultado.
+     * O ciclo é ignorado se esta réplica não for a dona do prédio; quando executado, o lease do
+     * prédio é mantido até o fim do ciclo. Erros são registrados em log e não interrompem os
+     * próximos ciclos.
+     *
+     * @param building    Prédio monitorado.
+     * @param owned       Indica se esta réplica era a dona do prédio no ciclo anterior.
+     * @param lastSuccess Momento da última atualização concluída com sucesso.
+     * @return Mono<Void> indicando a conclusão do ciclo.
+     */
+    private Mono<Void> refresh(MonitoredBuilding building, AtomicBoolean owned, AtomicLong lastSuccess) {
+        var buildingName = building.getBuildingName();
+
+        return refreshCoordinator.tryAcquire(buildingName)
+                .onErrorResume(e -> {
+                    log.error("Failed to check refresh ownership of building {}: {}", buildingName, e.getMessage());
+                    return Mono.just(false);
+                })
+                .flatMap(acquired -> {
+                    var takeover = Mono.<Void>empty();
+
+                    if (owned.getAndSet(acquired) != acquired) {
+                        log.info("{} energy refresh of building {}", acquired ? "Taking over" : "Handing off", buildingName);
+
+                        if (acquired) {
+                            energyDerivedDataReconciler.scheduleReconcile(buildingName);
+                            lastSuccess.set(System.currentTimeMillis());
+                            takeover = energyIdIndex.warm(buildingName);
+                        }
+                    }
+
+                    return acquired
+                            ? takeover.then(cycle(building, lastSuccess)).then(Mono.defer(() -> refreshCoordinator.complete(buildingName))
+                                    .onErrorResume(e -> {
+                                        log.error("Failed to release refresh ownership of building {}: {}", buildingName, e.getMessage());
+                                        return Mono.empty();
+                                    }))
+                            : Mono.empty();
+                });
+    }
+
+    private Mono<Void> cycle(MonitoredBuilding building, AtomicLong lastSuccess) {
+        var buildingName = building.getBuildingName();
+
+        return Mono.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+
+            return energyService.refreshEnergyData(building)
+                    .doOnSuccess(result -> {
+                        lastSuccess.set(System.currentTimeMillis());
+                        sample.stop(durationTimer(buildingName, "success"));
+                    })
+                    .doOnError(e -> {
+                        sample.stop(durationTimer(buildingName, "error"));
+                        log.error("Failed to refresh energy data of building {}: {}", buildingName, e.getMessage());
+                    })
+                    .onErrorResume(e -> Mono.empty());
+        });
+    }
+
+    private Timer durationTimer(String building, String outcome) {
+        return Timer.builder("energy.refresh.duration")
+                .tag("building", building)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.inovatech.powerguard.infra.live;
+
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+import br.com.inovatech.powerguard.infra.configs.LiveEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canal de envio em tempo real das novas leituras de energia de cada prédio.
+ *
+ * A instância que ingere um lote publica as leituras inseridas no canal do prédio no Redis.
+ * Todas as instâncias assinam esses canais e repassam as leituras para um Sinks.Many por prédio,
+ * com replay limitado, ao qual os clientes conectados se inscrevem. Assim, cada cliente recebe as
+ * leituras assim que são gravadas, sem consultar a API periodicamente.
+ */
+@Slf4j
+@Component
+public class EnergyLiveFeed {
+
+    private static final TypeReference<List<EnergyDTO>> ENERGY_LIST = new TypeReference<>() {};
+
+    @Autowired
+    private ReactiveStringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LiveEnvironmentConfig liveConfig;
+
+    private final Map<String, Sinks.Many<EnergyDTO>> sinks = new ConcurrentHashMap<>();
+
+    private Disposable subscription;
+
+    /**
+     * Publica as leituras recém-inseridas de um prédio para todas as instâncias.
+     *
+     * @param building Nome do prédio.
+     * @param readings Leituras recém-inseridas.
+     * @return Mono<Void> indicando a conclusão da publicação.
+     */
+    public Mono<Void> publish(String building, List<EnergyReading> readings) {
+        if (readings.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(readings.stream().map(EnergyReading::toDTO).toList()))
+                .flatMap(message -> stringRedisTemplate.convertAndSend(liveConfig.getChannelPrefix() + building, message))
+                .then();
+    }
+
+    /**
+     * Inscreve um cliente nas novas leituras de um prédio. O cliente recebe primeiro as últimas
+     * leituras guardadas para replay e depois cada nova leitura. Clientes lentos perdem as
+     * leituras mais antigas em vez de acumular memória no servidor.
+     *
+     * @param building Nome do prédio.
+     * @return Flux<EnergyDTO> infinito com as leituras do prédio.
+     */
+    public Flux<EnergyDTO> subscribe(String building) {
+        return sinkOf(building).asFlux()
+                .onBackpressureBuffer(liveConfig.getSubscriberBufferSize(), BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Assina os canais de leituras do Redis. Em caso de falha na conexão, a assinatura é refeita.
+     */
+    @PostConstruct
+    private void listen() {
+        subscription = stringRedisTemplate.listenToPattern(liveConfig.getChannelPrefix() + "*")
+                .doOnNext(this::dispatch)
+                .doOnError(e -> log.error("Live feed listener failed: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    private void stop() {
+        subscription.dispose();
+        sinks.values().forEach(Sinks.Many::tryEmitComplete);
+    }
+
+    private void dispatch(ReactiveSubscription.Message<String, String> message) {
+        var building = message.getChannel().substring(liveConfig.getChannelPrefix().length());
+
+        try {
+            var sink = sinkOf(building);
+            objectMapper.readValue(message.getMessage(), ENERGY_LIST)
+                    .forEach(energy -> sink.emitNext(energy, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100))));
+        } catch (JsonProcessingException e) {
+            log.error("Discarding invalid live message for building {}: {}", building, e.getMessage());
+        }
+    }
+
+    private Sinks.Many<EnergyDTO> sinkOf(String building) {
+        return sinks.computeIfAbsent(building, b -> Sinks.many().replay().limit(liveConfig.getReplaySize()));
+    }
+}
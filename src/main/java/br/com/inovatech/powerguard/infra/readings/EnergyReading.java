@@ -0,0 +1,162 @@
+package br.com.inovatech.powerguard.infra.readings;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+
+import java.util.Date;
+
+/**
+ * Representação compacta de uma leitura de energia, usada internamente na ingestão,
+ * no cache e nas agregações.
+ *
+ * As grandezas são armazenadas como double primitivo (NaN representa valor ausente) e as
+ * datas como milissegundos desde a época (NO_TIME representa data ausente), evitando um
+ * objeto Double ou Date por campo. A conversão para EnergyDTO é feita apenas na borda HTTP.
+ */
+public record EnergyReading(String id,
+                            String building,
+                            long timestamp,
+                            long createdAt,
+                            double tensaoa,
+                            double tensaob,
+                            double tensaoc,
+                            double correntea,
+                            double correnteb,
+                            double correntec,
+                            double potativaa,
+                            double potativab,
+                            double potativac,
+                            double potativatotal,
+                            double potreativaa,
+                            double potreativab,
+                            double potreativac,
+                            double potreativatotal,
+                            double potaparentea,
+                            double potaparenteb,
+                            double potaparentec,
+                            double potaparentetotal,
+                            double fatorpotenciaa,
+                            double fatorpotenciab,
+                            double fatorpotenciac,
+                            double fatorpotenciatotal) {
+
+    // Valor usado para datas ausentes.
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    /**
+     * Cria uma leitura a partir de um EnergyDTO.
+     *
+     * @param energy Dado de energia recebido da API externa ou do cache.
+     * @return A leitura compacta correspondente.
+     */
+    public static EnergyReading from(EnergyDTO energy) {
+        var values = new double[Measurement.values().length];
+        for (var measurement : Measurement.values()) {
+            values[measurement.ordinal()] = measurement.of(energy);
+        }
+        return of(energy.getId(), energy.getBuilding(), toMillis(energy.getTimestamp()), toMillis(energy.getCreatedAt()), values);
+    }
+
+    /**
+     * Cria uma leitura a partir de um EnergyDomain.
+     *
+     * @param energy Dado de energia lido do banco de dados.
+     * @return A leitura compacta correspondente.
+     */
+    public static EnergyReading from(EnergyDomain energy) {
+        var values = new double[Measurement.values().length];
+        for (var measurement : Measurement.values()) {
+            values[measurement.ordinal()] = measurement.of(energy);
+        }
+        return of(energy.getId(), energy.getBuilding(), toMillis(energy.getTimestamp()), toMillis(energy.getCreatedAt()), values);
+    }
+
+    /**
+     * Cria uma leitura a partir dos valores das grandezas, na ordem de Measurement.
+     *
+     * @param id        ID sintético da leitura.
+     * @param building  Nome do prédio.
+     * @param timestamp Momento da medição, em milissegundos desde a época.
+     * @param createdAt Momento de criação na API externa, em milissegundos desde a época.
+     * @param values    Valores das grandezas, indexados por Measurement.ordinal().
+     * @return A leitura compacta correspondente.
+     */
+    public static EnergyReading of(String id, String building, long timestamp, long createdAt, double[] values) {
+        return new EnergyReading(id, building, timestamp, createdAt,
+                values[0],
+                values[1],
+                values[2],
+                values[3],
+                values[4],
+                values[5],
+                values[6],
+                values[7],
+                values[8],
+                values[9],
+                values[10],
+                values[11],
+                values[12],
+                values[13],
+                values[14],
+                values[15],
+                values[16],
+                values[17],
+                values[18],
+                values[19],
+                values[20],
+                values[21]);
+    }
+
+    /**
+     * Retorna o instante usado para ordenar a leitura nas janelas de tempo: o timestamp da
+     * medição ou, na sua ausência, a data de gravação.
+     *
+     * @return O instante em epoch milissegundos, ou NO_TIME se a leitura não tiver nenhum dos dois.
+     */
+    public long orderingTime() {
+        return timestamp != NO_TIME ? timestamp : createdAt;
+    }
+
+    /**
+     * Retorna o valor de uma grandeza da leitura.
+     *
+     * @param measurement A grandeza desejada.
+     * @return O valor da grandeza, ou NaN se ausente.
+     */
+    public double get(Measurement measurement) {
+        return measurement.of(this);
+    }
+
+    /**
+     * Converte a leitura para o EnergyDTO exposto na API.
+     *
+     * @return O EnergyDTO correspondente.
+     */
+    public EnergyDTO toDTO() {
+        var energy = new EnergyDTO();
+        energy.setId(id);
+        energy.setBuilding(building);
+        energy.setTimestamp(toDate(timestamp));
+        energy.setCreatedAt(toDate(createdAt));
+        for (var measurement : Measurement.values()) {
+            measurement.set(energy, get(measurement));
+        }
+        return energy;
+    }
+
+    static double toPrimitive(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    static Double toBoxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    static long toMillis(Date date) {
+        return date == null ? NO_TIME : date.getTime();
+    }
+
+    static Date toDate(long millis) {
+        return millis == NO_TIME ? null : new Date(millis);
+    }
+}
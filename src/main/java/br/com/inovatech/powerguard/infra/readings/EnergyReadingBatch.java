@@ -0,0 +1,117 @@
+package br.com.inovatech.powerguard.infra.readings;
+
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lote colunar de leituras de energia.
+ *
+ * Cada grandeza é armazenada em um único double[] (uma coluna por Measurement), e as datas
+ * em long[]. Assim, um dia de leituras de um prédio ocupa algumas dezenas de arrays em vez
+ * de dezenas de objetos por leitura, e as agregações percorrem as colunas sequencialmente.
+ */
+public final class EnergyReadingBatch {
+
+    private final String[] ids;
+    private final String[] buildings;
+    private final long[] timestamps;
+    private final long[] createdAts;
+    private final double[][] columns;
+
+    public EnergyReadingBatch(String[] ids, String[] buildings, long[] timestamps, long[] createdAts, double[][] columns) {
+        this.ids = ids;
+        this.buildings = buildings;
+        this.timestamps = timestamps;
+        this.createdAts = createdAts;
+        this.columns = columns;
+    }
+
+    /**
+     * Cria um lote colunar a partir de uma lista de leituras.
+     *
+     * @param readings Leituras de energia.
+     * @return O lote colunar com as leituras na mesma ordem.
+     */
+    public static EnergyReadingBatch of(List<EnergyReading> readings) {
+        int size = readings.size();
+        var ids = new String[size];
+        var buildings = new String[size];
+        var timestamps = new long[size];
+        var createdAts = new long[size];
+        var columns = new double[Measurement.values().length][size];
+
+        for (int row = 0; row < size; row++) {
+            var reading = readings.get(row);
+            ids[row] = reading.id();
+            buildings[row] = reading.building();
+            timestamps[row] = reading.timestamp();
+            createdAts[row] = reading.createdAt();
+
+            for (var measurement : Measurement.values()) {
+                columns[measurement.ordinal()][row] = reading.get(measurement);
+            }
+        }
+
+        return new EnergyReadingBatch(ids, buildings, timestamps, createdAts, columns);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public String id(int row) {
+        return ids[row];
+    }
+
+    public String building(int row) {
+        return buildings[row];
+    }
+
+    public long timestamp(int row) {
+        return timestamps[row];
+    }
+
+    public long createdAt(int row) {
+        return createdAts[row];
+    }
+
+    /**
+     * Retorna a coluna de valores de uma grandeza. O array é compartilhado com o lote
+     * e não deve ser alterado.
+     *
+     * @param measurement A grandeza desejada.
+     * @return Os valores da grandeza, um por leitura.
+     */
+    public double[] column(Measurement measurement) {
+        return columns[measurement.ordinal()];
+    }
+
+    /**
+     * Monta a leitura de uma linha do lote.
+     *
+     * @param row Índice da leitura.
+     * @return A leitura correspondente.
+     */
+    public EnergyReading get(int row) {
+        var values = new double[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            values[column] = columns[column][row];
+        }
+        return EnergyReading.of(ids[row], buildings[row], timestamps[row], createdAts[row], values);
+    }
+
+    /**
+     * Converte o lote para a lista de EnergyDTO exposta na API.
+     *
+     * @return Lista de EnergyDTO na mesma ordem das leituras.
+     */
+    public List<EnergyDTO> toDTOs() {
+        List<EnergyDTO> energies = new ArrayList<>(size());
+        for (int row = 0; row < size(); row++) {
+            energies.add(get(row).toDTO());
+        }
+        return energies;
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.inovatech.powerguard.infra.readings;
+
+import org.bson.Document;
+
+import java.util.Date;
+
+/**
+ * Classe utilitária para converter leituras de energia em documentos do MongoDB.
+ * Os nomes dos campos são os mesmos usados pelo EnergyDomain na coleção de energia,
+ * e os valores ausentes não são gravados.
+ */
+public class EnergyReadingDocuments {
+
+    /**
+     * Converte uma leitura no documento gravado na coleção de energia.
+     *
+     * @param reading Leitura de energia.
+     * @return Documento com os campos da leitura, incluindo o _id.
+     */
+    public static Document toDocument(EnergyReading reading) {
+        var document = new Document("_id", reading.id());
+        document.put("building", reading.building());
+        putDate(document, "timestamp", reading.timestamp());
+
+        for (var measurement : Measurement.values()) {
+            var value = reading.get(measurement);
+            if (!Double.isNaN(value)) {
+                document.put(measurement.getField(), value);
+            }
+        }
+
+        putDate(document, "createdAt", reading.createdAt());
+        return document;
+    }
+
+    private static void putDate(Document document, String field, long millis) {
+        if (millis != EnergyReading.NO_TIME) {
+            document.put(field, new Date(millis));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.inovatech.powerguard.infra.readings;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Grandezas elétricas medidas em cada leitura de energia.
+ *
+ * Cada constante conhece o nome do campo no banco de dados e na API, e como ler o valor
+ * de uma leitura compacta, de um EnergyDTO e de um EnergyDomain. A ordem das constantes
+ * define a posição de cada coluna no EnergyReadingBatch.
+ */
+public enum Measurement {
+
+    TENSAO_A("tensaoa", EnergyReading::tensaoa, EnergyDTO::getTensaoa, EnergyDTO::setTensaoa, EnergyDomain::getTensaoa),
+    TENSAO_B("tensaob", EnergyReading::tensaob, EnergyDTO::getTensaob, EnergyDTO::setTensaob, EnergyDomain::getTensaob),
+    TENSAO_C("tensaoc", EnergyReading::tensaoc, EnergyDTO::getTensaoc, EnergyDTO::setTensaoc, EnergyDomain::getTensaoc),
+    CORRENTE_A("correntea", EnergyReading::correntea, EnergyDTO::getCorrentea, EnergyDTO::setCorrentea, EnergyDomain::getCorrentea),
+    CORRENTE_B("correnteb", EnergyReading::correnteb, EnergyDTO::getCorrenteb, EnergyDTO::setCorrenteb, EnergyDomain::getCorrenteb),
+    CORRENTE_C("correntec", EnergyReading::correntec, EnergyDTO::getCorrentec, EnergyDTO::setCorrentec, EnergyDomain::getCorrentec),
+    POT_ATIVA_A("potativaa", EnergyReading::potativaa, EnergyDTO::getPotativaa, EnergyDTO::setPotativaa, EnergyDomain::getPotativaa),
+    POT_ATIVA_B("potativab", EnergyReading::potativab, EnergyDTO::getPotativab, EnergyDTO::setPotativab, EnergyDomain::getPotativab),
+    POT_ATIVA_C("potativac", EnergyReading::potativac, EnergyDTO::getPotativac, EnergyDTO::setPotativac, EnergyDomain::getPotativac),
+    POT_ATIVA_TOTAL("potativatotal", EnergyReading::potativatotal, EnergyDTO::getPotativatotal, EnergyDTO::setPotativatotal, EnergyDomain::getPotativatotal),
+    POT_REATIVA_A("potreativaa", EnergyReading::potreativaa, EnergyDTO::getPotreativaa, EnergyDTO::setPotreativaa, EnergyDomain::getPotreativaa),
+    POT_REATIVA_B("potreativab", EnergyReading::potreativab, EnergyDTO::getPotreativab, EnergyDTO::setPotreativab, EnergyDomain::getPotreativab),
+    POT_REATIVA_C("potreativac", EnergyReading::potreativac, EnergyDTO::getPotreativac, EnergyDTO::setPotreativac, EnergyDomain::getPotreativac),
+    POT_REATIVA_TOTAL("potreativatotal", EnergyReading::potreativatotal, EnergyDTO::getPotreativatotal, EnergyDTO::setPotreativatotal, EnergyDomain::getPotreativatotal),
+    POT_APARENTE_A("potaparentea", EnergyReading::potaparentea, EnergyDTO::getPotaparentea, EnergyDTO::setPotaparentea, EnergyDomain::getPotaparentea),
+    POT_APARENTE_B("potaparenteb", EnergyReading::potaparenteb, EnergyDTO::getPotaparenteb, EnergyDTO::setPotaparenteb, EnergyDomain::getPotaparenteb),
+    POT_APARENTE_C("potaparentec", EnergyReading::potaparentec, EnergyDTO::getPotaparentec, EnergyDTO::setPotaparentec, EnergyDomain::getPotaparentec),
+    POT_APARENTE_TOTAL("potaparentetotal", EnergyReading::potaparentetotal, EnergyDTO::getPotaparentetotal, EnergyDTO::setPotaparentetotal, EnergyDomain::getPotaparentetotal),
+    FATOR_POTENCIA_A("fatorpotenciaa", EnergyReading::fatorpotenciaa, EnergyDTO::getFatorpotenciaa, EnergyDTO::setFatorpotenciaa, EnergyDomain::getFatorpotenciaa),
+    FATOR_POTENCIA_B("fatorpotenciab", EnergyReading::fatorpotenciab, EnergyDTO::getFatorpotenciab, EnergyDTO::setFatorpotenciab, EnergyDomain::getFatorpotenciab),
+    FATOR_POTENCIA_C("fatorpotenciac", EnergyReading::fatorpotenciac, EnergyDTO::getFatorpotenciac, EnergyDTO::setFatorpotenciac, EnergyDomain::getFatorpotenciac),
+    FATOR_POTENCIA_TOTAL("fatorpotenciatotal", EnergyReading::fatorpotenciatotal, EnergyDTO::getFatorpotenciatotal, EnergyDTO::setFatorpotenciatotal, EnergyDomain::getFatorpotenciatotal);
+
+    private static final Map<String, Measurement> BY_FIELD = Arrays.stream(values())
+            .collect(Collectors.toMap(Measurement::getField, Function.identity()));
+
+    private final String field;
+    private final ToDoubleFunction<EnergyReading> readingGetter;
+    private final Function<EnergyDTO, Double> dtoGetter;
+    private final BiConsumer<EnergyDTO, Double> dtoSetter;
+    private final Function<EnergyDomain, Double> domainGetter;
+
+    Measurement(String field, ToDoubleFunction<EnergyReading> readingGetter, Function<EnergyDTO, Double> dtoGetter,
+                BiConsumer<EnergyDTO, Double> dtoSetter, Function<EnergyDomain, Double> domainGetter) {
+        this.field = field;
+        this.readingGetter = readingGetter;
+        this.dtoGetter = dtoGetter;
+        this.dtoSetter = dtoSetter;
+        this.domainGetter = domainGetter;
+    }
+
+    /**
+     * Busca a grandeza pelo nome do campo (ex.: "potativatotal").
+     *
+     * @param field Nome do campo.
+     * @return A grandeza correspondente, ou null se o campo não existir.
+     */
+    public static Measurement fromField(String field) {
+        return BY_FIELD.get(field);
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public double of(EnergyReading reading) {
+        return readingGetter.applyAsDouble(reading);
+    }
+
+    double of(EnergyDTO energy) {
+        return EnergyReading.toPrimitive(dtoGetter.apply(energy));
+    }
+
+    double of(EnergyDomain energy) {
+        return EnergyReading.toPrimitive(domainGetter.apply(energy));
+    }
+
+    void set(EnergyDTO energy, double value) {
+        dtoSetter.accept(energy, EnergyReading.toBoxed(value));
+    }
+}
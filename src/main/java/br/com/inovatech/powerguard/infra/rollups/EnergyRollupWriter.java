@@ -0,0 +1,155 @@
+package br.com.inovatech.powerguard.infra.rollups;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.Measurement;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Componente responsável por manter os agregados (rollups) de energia de cada prédio.
+ *
+ * Os agregados são recalculados a partir da coleção de energia: para cada granularidade, os
+ * intervalos que contêm as leituras informadas são reagregados por uma pipeline ($group por
+ * $dateTrunc) e gravados com $merge, substituindo os documentos existentes. Como o resultado
+ * depende apenas das leituras gravadas, o recálculo é idempotente: pode ser repetido após uma
+ * falha parcial da ingestão ou usado para reconciliar e preencher o histórico.
+ * A média é calculada na leitura (sum / count).
+ *
+ * Documento gravado por intervalo:
+ * { _id: "<prédio>:<início>", building, bucket, metrics: { <campo>: { count, sum, min, max } } }
+ */
+@Component
+public class EnergyRollupWriter {
+
+    // Grandezas acumuladas nos agregados.
+    public static final List<Measurement> METRICS = List.of(
+            Measurement.POT_ATIVA_TOTAL,
+            Measurement.POT_REATIVA_TOTAL,
+            Measurement.POT_APARENTE_TOTAL,
+            Measurement.FATOR_POTENCIA_TOTAL);
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * Recalcula, em todas as granularidades, os intervalos que contêm as leituras informadas.
+     *
+     * @param building Nome do prédio.
+     * @param readings Leituras recém-inseridas.
+     * @return Mono<Void> indicando a conclusão da gravação.
+     */
+    public Mono<Void> refresh(String building, List<EnergyReading> readings) {
+        var range = readings.stream()
+                .mapToLong(EnergyReading::timestamp)
+                .filter(timestamp -> timestamp != EnergyReading.NO_TIME)
+                .summaryStatistics();
+
+        if (range.getCount() == 0) {
+            return Mono.empty();
+        }
+
+        return recompute(building, range.getMin(), range.getMax() + 1);
+    }
+
+    /**
+     * Recalcula, em todas as granularidades, os intervalos de um prédio que intersectam [from, to).
+     *
+     * @param building Nome do prédio.
+     * @param from     Início (inclusivo), em milissegundos desde a época.
+     * @param to       Fim (exclusivo), em milissegundos desde a época.
+     * @return Mono<Void> indicando a conclusão da gravação.
+     */
+    public Mono<Void> recompute(String building, long from, long to) {
+        if (from >= to) {
+            return Mono.empty();
+        }
+
+        var collection = mongoTemplate.getCollectionName(EnergyDomain.class);
+
+        return Flux.fromArray(RollupGranularity.values())
+                .concatMap(granularity -> mongoTemplate.getCollection(collection)
+                        .flatMap(source -> Flux.from(source.aggregate(pipeline(building, granularity, from, to))
+                                        .allowDiskUse(true)
+                                        .toCollection())
+                                .then()))
+                .then();
+    }
+
+    /**
+     * Monta a pipeline que reagrega os intervalos inteiros que intersectam [from, to) e os grava
+     * na coleção da granularidade.
+     */
+    private List<Document> pipeline(String building, RollupGranularity granularity, long from, long to) {
+        var start = granularity.bucketOf(from);
+        var end = granularity.nextBucket(granularity.bucketOf(to - 1));
+
+        var group = new Document("_id", truncate(granularity));
+        var metrics = new Document();
+
+        for (var measurement : METRICS) {
+            var field = measurement.getField();
+            var value = "$" + field;
+
+            group.append(field + "_count", new Document("$sum",
+                            new Document("$cond", List.of(new Document("$isNumber", value), 1, 0))))
+                    .append(field + "_sum", new Document("$sum", value))
+                    .append(field + "_min", new Document("$min", value))
+                    .append(field + "_max", new Document("$max", value));
+
+            metrics.append(field, new Document("$cond", List.of(
+                    new Document("$gt", List.of("$" + field + "_count", 0)),
+                    new Document("count", "$" + field + "_count")
+                            .append("sum", "$" + field + "_sum")
+                            .append("min", "$" + field + "_min")
+                            .append("max", "$" + field + "_max"),
+                    "$$REMOVE")));
+        }
+
+        return List.of(
+                new Document("$match", new Document("building", building)
+                        .append("timestamp", new Document("$gte", new Date(start)).append("$lt", new Date(end)))),
+                new Document("$group", group),
+                new Document("$project", new Document("_id", new Document("$concat", List.of(
+                        new Document("$literal", building + ":"),
+                        new Document("$toString", new Document("$toLong", "$_id")))))
+                        .append("building", new Document("$literal", building))
+                        .append("bucket", "$_id")
+                        .append("metrics", metrics)),
+                new Document("$merge", new Document("into", granularity.getCollection())
+                        .append("on", "_id")
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+    }
+
+    /**
+     * Expressão $dateTrunc equivalente a RollupGranularity.bucketOf: intervalos menores que um dia
+     * alinhados em UTC e diários no fuso horário da aplicação.
+     */
+    private static Document truncate(RollupGranularity granularity) {
+        var truncate = new Document("date", "$timestamp");
+
+        switch (granularity) {
+            case MINUTE -> truncate.append("unit", "minute");
+            case QUARTER_HOUR -> truncate.append("unit", "minute").append("binSize", 15);
+            case HOUR -> truncate.append("unit", "hour");
+            case DAY -> truncate.append("unit", "day").append("timezone", timezone());
+        }
+
+        return new Document("$dateTrunc", truncate);
+    }
+
+    private static String timezone() {
+        var zone = ZoneId.systemDefault();
+        return zone instanceof ZoneOffset offset && offset.getTotalSeconds() == 0 ? "+00:00" : zone.getId();
+    }
+}
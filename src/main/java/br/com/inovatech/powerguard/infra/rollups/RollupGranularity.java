@@ -0,0 +1,77 @@
+package br.com.inovatech.powerguard.infra.rollups;
+
+import br.com.inovatech.powerguard.infra.exceptions.InvalidParameterException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Granularidades dos agregados (rollups) de energia. Cada granularidade é gravada em uma
+ * coleção própria. Os intervalos menores que um dia são alinhados à época (UTC) e os diários
+ * ao início do dia no fuso horário da aplicação.
+ */
+public enum RollupGranularity {
+    MINUTE(Duration.ofMinutes(1), "energy_rollup_1m"),
+    QUARTER_HOUR(Duration.ofMinutes(15), "energy_rollup_15m"),
+    HOUR(Duration.ofHours(1), "energy_rollup_1h"),
+    DAY(Duration.ofDays(1), "energy_rollup_1d");
+
+    private final Duration size;
+    private final String collection;
+
+    RollupGranularity(Duration size, String collection) {
+        this.size = size;
+        this.collection = collection;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * Calcula o início do intervalo ao qual um instante pertence.
+     *
+     * @param millis Instante em milissegundos desde a época.
+     * @return O início do intervalo, em milissegundos desde a época.
+     */
+    public long bucketOf(long millis) {
+        if (this == DAY) {
+            var zone = ZoneId.systemDefault();
+            return Instant.ofEpochMilli(millis).atZone(zone).toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+
+        return Math.floorDiv(millis, size.toMillis()) * size.toMillis();
+    }
+
+    /**
+     * Calcula o início do intervalo seguinte.
+     *
+     * @param bucket Início de um intervalo, em milissegundos desde a época.
+     * @return O início do intervalo seguinte, em milissegundos desde a época.
+     */
+    public long nextBucket(long bucket) {
+        if (this == DAY) {
+            var zone = ZoneId.systemDefault();
+            return Instant.ofEpochMilli(bucket).atZone(zone).toLocalDate().plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+
+        return bucket + size.toMillis();
+    }
+
+    /**
+     * Busca a granularidade pelo nome, sem diferenciar maiúsculas e minúsculas.
+     *
+     * @param name Nome da granularidade (ex.: "hour").
+     * @return A granularidade correspondente.
+     * @throws InvalidParameterException Se o nome não corresponder a nenhuma granularidade.
+     */
+    public static RollupGranularity fromName(String name) {
+        for (var granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(name)) {
+                return granularity;
+            }
+        }
+        throw new InvalidParameterException("Invalid granularity: " + name);
+    }
+}
@@ -2,15 +2,16 @@ package br.com.inovatech.powerguard.infra.security.configs;
 
 import br.com.inovatech.powerguard.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
-import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 /**
  * Classe de configuração de autenticação utilizando Spring Security com WebFlux.
  *
@@ -23,16 +24,22 @@ public class AuthenticationConfig {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${security.user-cache.ttl:10m}")
+    private Duration userCacheTtl;
+
+    @Value("${security.user-cache.max-size:100}")
+    private long userCacheMaxSize;
+
     /**
      * Configura um serviço reativo de detalhes de usuário que busca o usuário
-     * pelo nome de usuário no repositório.
+     * pelo nome de usuário no repositório e o mantém em cache. O mesmo serviço é usado
+     * pelo filtro de autenticação, pelo login e pela atualização do token.
      *
-     * @return ReactiveUserDetailsService Serviço reativo para carregar detalhes do usuário.
+     * @return CachedUserDetailsService Serviço reativo para carregar detalhes do usuário.
      */
     @Bean
-    ReactiveUserDetailsService userDetailsService() {
-        return username -> userRepository.findByUsername(username)
-                .cast(UserDetails.class);
+    CachedUserDetailsService userDetailsService() {
+        return new CachedUserDetailsService(userRepository, userCacheTtl, userCacheMaxSize);
     }
 
     /**
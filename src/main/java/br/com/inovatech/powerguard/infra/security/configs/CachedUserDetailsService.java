@@ -0,0 +1,50 @@
+package br.com.inovatech.powerguard.infra.security.configs;
+
+import br.com.inovatech.powerguard.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Serviço reativo de detalhes de usuário com cache local.
+ *
+ * Os usuários são buscados no repositório apenas na primeira requisição e depois servidos
+ * do cache até expirarem (security.user-cache.ttl) ou serem invalidados após uma alteração.
+ * Requisições simultâneas para um usuário fora do cache compartilham a mesma consulta.
+ * Usuários inexistentes não são guardados.
+ */
+public class CachedUserDetailsService implements ReactiveUserDetailsService {
+
+    private final UserRepository userRepository;
+
+    private final AsyncCache<String, UserDetails> cache;
+
+    public CachedUserDetailsService(UserRepository userRepository, Duration ttl, long maximumSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .buildAsync();
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return Mono.fromFuture(() -> cache.get(username, (key, executor) ->
+                userRepository.findByUsername(key)
+                        .cast(UserDetails.class)
+                        .toFuture()));
+    }
+
+    /**
+     * Descarta o usuário do cache, forçando a próxima busca no repositório.
+     *
+     * @param username Nome do usuário alterado.
+     */
+    public void invalidate(String username) {
+        cache.synchronous().invalidate(username);
+    }
+}
@@ -42,8 +42,8 @@ public class SecurityConfig {
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(exchange -> exchange
                         .pathMatchers(HttpMethod.OPTIONS).permitAll()
-                        .pathMatchers("/api/v1/auth/signin", "/webjars/**", "/v3/api-docs/**").permitAll()
-                        .pathMatchers("/api/v1/energy/**", "/api/v1/auth/refresh").authenticated()
+                        .pathMatchers("/api/v1/auth/signin", "/webjars/**", "/v3/api-docs/**", "/actuator/health").permitAll()
+                        .pathMatchers("/api/v1/energy/**", "/api/v1/auth/refresh", "/actuator/**").authenticated()
                         .pathMatchers("/users").denyAll()
                 )
                 .authenticationManager(reactiveAuthenticationManager) // Gerenciador de autenticação reativo
@@ -17,6 +17,8 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.util.Set;
+
 /**
  * Filtro de autenticação JWT para WebFlux que intercepta requisições e valida o token JWT
  * para autenticar o usuário em cada requisição.
@@ -27,6 +29,9 @@ import reactor.core.publisher.Mono;
 @Component
 public class AuthenticationFilter implements WebFilter {
 
+    // Endpoints de streaming acessados pelo EventSource do navegador, que não permite enviar cabeçalhos.
+    private static final Set<String> QUERY_TOKEN_PATHS = Set.of("/api/v1/energy/live");
+
     @Autowired
     private JwtUtils jwtUtils;
 
@@ -85,6 +90,7 @@ public class AuthenticationFilter implements WebFilter {
 
     /**
      * Método auxiliar para extrair o token JWT do cabeçalho Authorization da requisição.
+     * Nos endpoints de streaming, o token também é aceito no parâmetro access_token.
      *
      * @param exchange O objeto que contém a requisição HTTP.
      * @return String O token JWT se presente, ou null se o cabeçalho não contiver um token válido.
@@ -94,6 +100,9 @@ public class AuthenticationFilter implements WebFilter {
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             return authorizationHeader.substring("Bearer ".length());  // Remove "Bearer " para obter o token
         }
+        if (QUERY_TOKEN_PATHS.contains(exchange.getRequest().getPath().value())) {
+            return exchange.getRequest().getQueryParams().getFirst("access_token");
+        }
         return null;
     }
 }
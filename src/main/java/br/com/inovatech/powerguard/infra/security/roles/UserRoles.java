@@ -1,5 +0,0 @@
-package br.com.inovatech.powerguard.infra.security.roles;
-
-public enum UserRoles {
-    USER_A, USER_C, USER_L
-}
@@ -2,19 +2,29 @@ package br.com.inovatech.powerguard.infra.security.utils;
 
 import br.com.inovatech.powerguard.dtos.TokenDTO;
 import br.com.inovatech.powerguard.infra.exceptions.InvalidJwtAuthenticationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -23,6 +33,10 @@ import java.util.function.Function;
  *
  * As chaves e o tempo de expiração dos tokens são configurados por meio de variáveis
  * externas definidas no arquivo de propriedades da aplicação.
+ *
+ * A chave e o parser são criados uma única vez, e as claims dos tokens já verificados ficam em
+ * um cache limitado, indexado pelo hash SHA-256 do token e expirado junto com o token. Assim,
+ * apenas a primeira requisição com cada token verifica a assinatura.
  */
 @Component
 public class JwtUtils {
@@ -33,6 +47,46 @@ public class JwtUtils {
     @Value("${security.token_expiration_time}")
     private long tokenExpirationTime;
 
+    @Value("${security.claims-cache-size:10000}")
+    private long claimsCacheSize;
+
+    private Key signKey;
+
+    private JwtParser parser;
+
+    private Cache<String, Claims> claimsCache;
+
+    /**
+     * Cria a chave de assinatura, o parser e o cache de claims verificadas.
+     */
+    @PostConstruct
+    private void init() {
+        signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(securityKey));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signKey)  // Chave de assinatura
+                .build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        var expiration = claims.getExpiration();
+                        return expiration == null ? 0 : TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     /**
      * Extrai o nome de usuário (subject) do token JWT.
      *
@@ -113,7 +167,7 @@ public class JwtUtils {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))  // Definindo a expiração
-                .signWith(getSignKey(), SignatureAlgorithm.HS512)  // Assinatura com HS512
+                .signWith(signKey, SignatureAlgorithm.HS512)  // Assinatura com HS512
                 .compact();
     }
 
@@ -131,28 +185,29 @@ public class JwtUtils {
     }
 
     /**
-     * Extrai todas as claims de um token JWT.
+     * Extrai todas as claims de um token JWT. Tokens já verificados são lidos do cache;
+     * os demais são verificados pelo parser e, se válidos, guardados no cache.
      *
      * @param token O token JWT do qual as claims serão extraídas.
      * @return As claims contidas no token.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignKey())  // Chave de assinatura
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return claimsCache.get(hashOf(token), key -> parser.parseClaimsJws(token).getBody());
     }
 
     /**
-     * Retorna a chave de assinatura HMAC usada para assinar os tokens JWT.
+     * Calcula o hash SHA-256 do token, usado como chave do cache para não guardar os tokens em si.
      *
-     * @return A chave secreta usada para assinar o token JWT.
+     * @param token O token JWT.
+     * @return O hash do token em Base64.
      */
-    private Key getSignKey(){
-        byte[] keyBytes = Decoders.BASE64.decode(securityKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String hashOf(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     /**
@@ -163,27 +218,18 @@ public class JwtUtils {
      * @return True se o token for válido e pertencer ao usuário fornecido.
      */
     public boolean isTokenValid(String token, UserDetails user) {
-        return extractUsername(token).equals(user.getUsername()) && !isTokenExpirated(token);
+        var claims = extractAllClaims(token);
+        return claims.getSubject().equals(user.getUsername()) && !isTokenExpirated(claims);
     }
 
     /**
-     * Verifica se um token JWT está expirado.
+     * Verifica se as claims de um token JWT estão expiradas.
      *
-     * @param token O token JWT a ser verificado.
+     * @param claims As claims do token a ser verificado.
      * @return True se o token estiver expirado.
      */
-    private boolean isTokenExpirated(String token){
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extrai a data de expiração de um token JWT.
-     *
-     * @param token O token JWT do qual a data de expiração será extraída.
-     * @return A data de expiração do token.
-     */
-    private Date extractExpiration(String token){
-        return extractClaim(Claims::getExpiration, token);
+    private boolean isTokenExpirated(Claims claims){
+        return claims.getExpiration().before(new Date());
     }
 }
 
@@ -0,0 +1,375 @@
+package br.com.inovatech.powerguard.infra.storage;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.infra.configs.StorageEnvironmentConfig;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoNamespace;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Prepara a coleção de energia de acordo com o modo de armazenamento e migra a coleção comum
+ * existente para uma coleção time-series quando energy.storage.migrate estiver habilitado.
+ *
+ * A migração é retomável e idempotente. O seu estado fica no documento "energy-time-series" da
+ * coleção energy_migrations, que também serve de trava entre as réplicas (o prazo da trava usa o
+ * relógio do MongoDB, $$NOW). Passos:
+ * 1. A coleção comum é renomeada para a coleção legada registrada no documento (um sufixo é
+ *    adicionado se a coleção legada configurada já existir) e a coleção time-series é criada.
+ * 2. Os documentos legados são copiados em lotes, em ordem de _id. Após cada lote, o último _id
+ *    copiado é gravado e a trava é renovada. Ao retomar, a cópia continua desse ponto e o primeiro
+ *    lote é conferido contra a coleção de destino, pois pode ter sido gravado antes da falha.
+ * 3. A quantidade de documentos copiados é conferida com a coleção legada. Se faltar algum, a
+ *    próxima tentativa refaz a cópia desde o início, descartando os documentos já existentes.
+ *
+ * Uma coleção time-series deixada por uma migração parcial de versões anteriores (sem documento
+ * de estado) é tratada como uma migração em andamento e conferida da mesma forma.
+ *
+ * A ingestão aguarda ready() antes do primeiro ciclo; até lá, falhas e a trava de outra réplica
+ * fazem a preparação ser repetida periodicamente.
+ */
+@Slf4j
+@Component
+public class EnergyCollectionMigrator {
+
+    public static final String MIGRATIONS = "energy_migrations";
+    private static final String MIGRATION_ID = "energy-time-series";
+
+    private static final String COPYING = "COPYING";
+    private static final String COMPLETED = "COMPLETED";
+
+    private static final Document HAS_TIMESTAMP = new Document("timestamp", new Document("$ne", null));
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private StorageEnvironmentConfig storageConfig;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private Mono<Void> ready;
+
+    /**
+     * Inicia a preparação da coleção de energia em segundo plano.
+     */
+    @PostConstruct
+    private void start() {
+        ready = prepare()
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, storageConfig.getMigrationRetryInterval())
+                        .doBeforeRetry(signal -> log.warn("Energy collection not ready, retrying in {}: {}",
+                                storageConfig.getMigrationRetryInterval(), signal.failure().getMessage())))
+                .cache();
+
+        ready.subscribe(null, e -> log.error("Failed to prepare energy collection: {}", e.getMessage()));
+    }
+
+    /**
+     * @return Mono<Void> que completa quando a coleção de energia está pronta para receber dados.
+     */
+    public Mono<Void> ready() {
+        return ready;
+    }
+
+    private Mono<Void> prepare() {
+        if (!storageConfig.isTimeSeries()) {
+            return Mono.empty();
+        }
+
+        var collection = energyCollection();
+
+        return findMigration()
+                .map(migration -> Objects.toString(migration.getString("state"), ""))
+                .defaultIfEmpty("")
+                .zipWith(collectionType(collection))
+                .flatMap(states -> {
+                    var state = states.getT1();
+                    var type = states.getT2();
+
+                    if (COMPLETED.equals(state)) {
+                        return Mono.empty();
+                    }
+                    if (COPYING.equals(state)) {
+                        return withLock(this::migrate);
+                    }
+                    if (type.isEmpty()) {
+                        return createTimeSeriesCollection(collection);
+                    }
+                    if (!storageConfig.isMigrate()) {
+                        if (!"timeseries".equals(type)) {
+                            log.warn("Collection {} is not a time-series collection; enable energy.storage.migrate to migrate it", collection);
+                        }
+                        return Mono.empty();
+                    }
+                    if ("timeseries".equals(type)) {
+                        return collectionType(storageConfig.getLegacyCollection())
+                                .flatMap(legacyType -> legacyType.isEmpty() ? Mono.empty() : withLock(this::migrate));
+                    }
+
+                    return withLock(this::migrate);
+                });
+    }
+
+    /**
+     * Executa a migração a partir do estado gravado, sob a trava. Cada passo confere o estado
+     * atual das coleções, de modo que a migração possa ser retomada após qualquer falha.
+     */
+    private Mono<Void> migrate() {
+        var collection = energyCollection();
+
+        return findMigration()
+                .flatMap(migration -> {
+                    if (COMPLETED.equals(migration.getString("state"))) {
+                        return Mono.empty();
+                    }
+
+                    var start = COPYING.equals(migration.getString("state"))
+                            ? Mono.just(migration)
+                            : begin(collection);
+
+                    return start.flatMap(state -> renameIfNeeded(collection, state.getString("legacyCollection"))
+                            .then(collectionType(collection))
+                            .flatMap(type -> type.isEmpty() ? createTimeSeriesCollection(collection) : Mono.empty())
+                            .then(copy(collection, state))
+                            .then(verify(collection, state.getString("legacyCollection"))));
+                });
+    }
+
+    /**
+     * Registra o início da migração, escolhendo o nome da coleção legada. Se a coleção de energia
+     * já for time-series (migração parcial de versões anteriores), a coleção legada configurada é
+     * adotada e todos os lotes são conferidos.
+     */
+    private Mono<Document> begin(String collection) {
+        var configured = storageConfig.getLegacyCollection();
+
+        return collectionType(collection)
+                .flatMap(type -> "timeseries".equals(type)
+                        ? Mono.just(new Document("legacyCollection", configured).append("verifyAll", true))
+                        : collectionType(configured).map(legacyType -> new Document("legacyCollection",
+                                legacyType.isEmpty() ? configured : configured + "_" + System.currentTimeMillis())
+                                .append("verifyAll", false)))
+                .flatMap(state -> {
+                    log.warn("Migrating collection {} to a time-series collection, keeping the original as {}",
+                            collection, state.getString("legacyCollection"));
+
+                    return updateMigration(new Document("state", COPYING)
+                            .append("legacyCollection", state.getString("legacyCollection"))
+                            .append("verifyAll", state.getBoolean("verifyAll"))
+                            .append("lastCopiedId", null))
+                            .then(findMigration());
+                });
+    }
+
+    private Mono<Void> renameIfNeeded(String collection, String legacy) {
+        return collectionType(collection)
+                .zipWith(collectionType(legacy))
+                .flatMap(types -> {
+                    if (!"collection".equals(types.getT1())) {
+                        return Mono.empty();
+                    }
+                    if (!types.getT2().isEmpty()) {
+                        return Mono.error(new IllegalStateException("Cannot rename " + collection + ": " + legacy + " already exists"));
+                    }
+
+                    return mongoTemplate.getCollection(collection)
+                            .flatMap(source -> Mono.from(source.renameCollection(
+                                    new MongoNamespace(source.getNamespace().getDatabaseName(), legacy))))
+                            .then();
+                });
+    }
+
+    /**
+     * Copia os documentos legados com timestamp, em ordem de _id, a partir do último _id copiado.
+     */
+    private Mono<Void> copy(String collection, Document state) {
+        var batchSize = storageConfig.getMigrationBatchSize();
+        var verifyAll = Boolean.TRUE.equals(state.getBoolean("verifyAll"));
+        var lastCopiedId = state.get("lastCopiedId");
+        var first = new AtomicBoolean(true);
+
+        var filter = new Document(HAS_TIMESTAMP);
+        if (lastCopiedId != null) {
+            filter.append("_id", new Document("$gt", lastCopiedId));
+        }
+
+        return mongoTemplate.getCollection(collection)
+                .flatMap(target -> mongoTemplate.getCollection(state.getString("legacyCollection"))
+                        .flatMapMany(source -> source.find(filter).sort(new Document("_id", 1)).batchSize(batchSize))
+                        .buffer(batchSize)
+                        .concatMap(documents -> insertBatch(target, documents, verifyAll || first.getAndSet(false))
+                                .then(updateMigration(new Document("lastCopiedId", documents.get(documents.size() - 1).get("_id"))))
+                                .thenReturn(documents.size()))
+                        .reduce(0L, Long::sum))
+                .doOnNext(count -> log.warn("Copied {} energy documents to the time-series collection {}", count, collection))
+                .then();
+    }
+
+    /**
+     * Insere um lote na coleção time-series. Quando o lote pode já ter sido gravado, os documentos
+     * existentes (mesmo _id no intervalo de timestamps do lote) são descartados antes da inserção.
+     */
+    private Mono<Void> insertBatch(MongoCollection<Document> target, List<Document> documents, boolean verify) {
+        var existing = !verify
+                ? Mono.just(Set.of())
+                : Flux.from(target.find(new Document("_id", new Document("$in", documents.stream().map(document -> document.get("_id")).toList()))
+                                .append("timestamp", new Document("$gte", minTimestamp(documents)).append("$lte", maxTimestamp(documents))))
+                        .projection(new Document("_id", 1)))
+                .map(document -> document.get("_id"))
+                .collect(Collectors.toSet());
+
+        return existing.flatMap(ids -> {
+            var fresh = documents.stream().filter(document -> !ids.contains(document.get("_id"))).toList();
+
+            return fresh.isEmpty()
+                    ? Mono.empty()
+                    : Mono.from(target.insertMany(fresh, new InsertManyOptions().ordered(false))).then();
+        });
+    }
+
+    /**
+     * Confere a quantidade copiada com a coleção legada e conclui a migração. Se faltarem
+     * documentos, a cópia é reiniciada com conferência de todos os lotes.
+     */
+    private Mono<Void> verify(String collection, String legacy) {
+        var target = mongoTemplate.getCollection(collection).flatMap(source -> Mono.from(source.countDocuments()));
+        var expected = mongoTemplate.getCollection(legacy).flatMap(source -> Mono.from(source.countDocuments(HAS_TIMESTAMP)));
+        var skipped = mongoTemplate.getCollection(legacy)
+                .flatMap(source -> Mono.from(source.countDocuments(new Document("timestamp", null))));
+
+        return Mono.zip(target, expected, skipped)
+                .flatMap(counts -> {
+                    if (counts.getT1() < counts.getT2()) {
+                        return updateMigration(new Document("verifyAll", true).append("lastCopiedId", null))
+                                .then(Mono.error(new IllegalStateException("Time-series migration copied " + counts.getT1()
+                                        + " of " + counts.getT2() + " documents from " + legacy)));
+                    }
+
+                    if (counts.getT3() > 0) {
+                        log.warn("Skipped {} documents of {} without timestamp during the time-series migration", counts.getT3(), legacy);
+                    }
+
+                    log.warn("Time-series migration of {} completed with {} documents", collection, counts.getT1());
+                    return updateMigration(new Document("state", COMPLETED).append("completedAt", new Date()));
+                });
+    }
+
+    /**
+     * Executa a ação sob a trava da migração, liberando-a ao final. Se outra réplica detém a trava,
+     * retorna um erro para que a preparação seja repetida mais tarde.
+     */
+    private Mono<Void> withLock(Supplier<Mono<Void>> action) {
+        return tryLock()
+                .flatMap(locked -> locked
+                        ? action.get().then(unlock()).onErrorResume(e -> unlock().then(Mono.error(e)))
+                        : Mono.error(new IllegalStateException("time-series migration is running on another instance")));
+    }
+
+    private Mono<Boolean> tryLock() {
+        var filter = new Document("_id", MIGRATION_ID).append("$or", List.of(
+                new Document("lockedUntil", new Document("$exists", false)),
+                new Document("owner", owner),
+                new Document("$expr", new Document("$lt", List.of("$lockedUntil", "$$NOW")))));
+
+        return migrations()
+                .flatMap(migrations -> Mono.from(migrations.updateOne(filter, List.of(lockUpdate()), new UpdateOptions().upsert(true))))
+                .thenReturn(true)
+                .onErrorResume(MongoWriteException.class, e -> e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY
+                        ? Mono.just(false)
+                        : Mono.error(e));
+    }
+
+    private Mono<Void> unlock() {
+        return migrations()
+                .flatMap(migrations -> Mono.from(migrations.updateOne(new Document("_id", MIGRATION_ID).append("owner", owner),
+                        new Document("$unset", new Document("owner", "").append("lockedUntil", "")))))
+                .then();
+    }
+
+    /**
+     * Grava campos do estado da migração e renova a trava. Falha se a trava tiver sido perdida.
+     */
+    private Mono<Void> updateMigration(Document fields) {
+        var literals = new Document();
+        fields.forEach((field, value) -> literals.append(field, new Document("$literal", value)));
+
+        return migrations()
+                .flatMap(migrations -> Mono.from(migrations.updateOne(new Document("_id", MIGRATION_ID).append("owner", owner),
+                        List.of(new Document("$set", literals), lockUpdate()))))
+                .flatMap(result -> result.getMatchedCount() == 0
+                        ? Mono.error(new IllegalStateException("Lost the time-series migration lock"))
+                        : Mono.empty());
+    }
+
+    private Document lockUpdate() {
+        return new Document("$set", new Document("owner", owner)
+                .append("lockedUntil", new Document("$add", List.of("$$NOW", storageConfig.getMigrationLockTtl().toMillis()))));
+    }
+
+    private Mono<Document> findMigration() {
+        return migrations().flatMap(migrations -> Mono.from(migrations.find(new Document("_id", MIGRATION_ID)).first()));
+    }
+
+    private Mono<MongoCollection<Document>> migrations() {
+        return mongoTemplate.getCollection(MIGRATIONS);
+    }
+
+    /**
+     * Retorna o tipo da coleção ("collection" ou "timeseries"), ou vazio ("") se ela não existir.
+     *
+     * @param collection Nome da coleção.
+     * @return Mono<String> com o tipo da coleção.
+     */
+    private Mono<String> collectionType(String collection) {
+        return mongoTemplate.getMongoDatabase()
+                .flatMapMany(database -> database.listCollections().filter(new Document("name", collection)))
+                .next()
+                .map(info -> info.getString("type"))
+                .defaultIfEmpty("");
+    }
+
+    private Mono<Void> createTimeSeriesCollection(String collection) {
+        var options = CollectionOptions.empty().timeSeries(CollectionOptions.TimeSeriesOptions.timeSeries("timestamp")
+                .metaField("building")
+                .granularity(storageConfig.getGranularity()));
+
+        return mongoTemplate.createCollection(collection, options)
+                .doOnNext(created -> log.info("Created time-series collection {}", collection))
+                .then()
+                .onErrorResume(e -> collectionType(collection)
+                        .flatMap(type -> "timeseries".equals(type) ? Mono.<Void>empty() : Mono.error(e)));
+    }
+
+    private String energyCollection() {
+        return mongoTemplate.getCollectionName(EnergyDomain.class);
+    }
+
+    private static Date minTimestamp(List<Document> documents) {
+        return documents.stream().map(document -> document.getDate("timestamp")).min(Date::compareTo).orElseThrow();
+    }
+
+    private static Date maxTimestamp(List<Document> documents) {
+        return documents.stream().map(document -> document.getDate("timestamp")).max(Date::compareTo).orElseThrow();
+    }
+}
@@ -1,5 +0,0 @@
-package br.com.inovatech.powerguard.infra.utils;
-
-public enum BuildingType {
-    Building_A, Building_C, Building_L
-}
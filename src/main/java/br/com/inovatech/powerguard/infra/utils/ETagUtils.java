@@ -0,0 +1,24 @@
+package br.com.inovatech.powerguard.infra.utils;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * Classe utilitária para a geração de ETags das respostas HTTP.
+ */
+public class ETagUtils {
+
+    /**
+     * Gera um ETag fraco a partir do conteúdo da resposta. Respostas com o mesmo conteúdo geram
+     * o mesmo ETag em qualquer instância da aplicação.
+     *
+     * O ETag é fraco porque a mesma representação é enviada com e sem compressão gzip: um ETag
+     * forte prometeria igualdade byte a byte entre corpos diferentes. A comparação do
+     * If-None-Match é fraca, então as requisições condicionais continuam recebendo 304.
+     *
+     * @param body Conteúdo serializado da resposta, antes da compressão.
+     * @return O ETag no formato W/"...", pronto para o cabeçalho ETag.
+     */
+    public static String weakETag(byte[] body) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+}
@@ -1,17 +1,42 @@
 package br.com.inovatech.powerguard.infra.utils;
 
-import org.modelmapper.ModelMapper;
-
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
- * Classe utilitária para mapeamento de objetos usando ModelMapper.
- * Fornece métodos para converter objetos de um tipo para outro.
+ * Classe utilitária para mapeamento de objetos.
+ * Fornece métodos para converter objetos de um tipo para outro, copiando as propriedades
+ * de mesmo nome e tipo compatível.
+ *
+ * Os getters e setters de cada par de classes (origem, destino) são resolvidos uma única vez
+ * e guardados como MethodHandles, evitando reflexão a cada conversão. As propriedades do tipo
+ * Date são copiadas, para que o objeto de destino não compartilhe instâncias mutáveis com a origem.
  */
 public class Mapper {
 
-    // Instância do ModelMapper usada para realizar o mapeamento de objetos.
-    private static final ModelMapper mapper = new ModelMapper();
+    // Copiadores de propriedades por classe de origem e, em seguida, por classe de destino.
+    private static final ClassValue<ClassValue<PropertyCopier>> copiers = new ClassValue<>() {
+        @Override
+        protected ClassValue<PropertyCopier> computeValue(Class<?> sourceType) {
+            return new ClassValue<>() {
+                @Override
+                protected PropertyCopier computeValue(Class<?> destinationType) {
+                    return PropertyCopier.of(sourceType, destinationType);
+                }
+            };
+        }
+    };
 
     /**
      * Converte um objeto de um tipo para outro tipo.
@@ -21,9 +46,14 @@ public class Mapper {
      * @param <O> O tipo do objeto de origem.
      * @param <D> O tipo do objeto de destino.
      * @return O objeto convertido no tipo de destino especificado.
+     * @throws IllegalArgumentException Se o objeto de origem for nulo.
      */
     public static <O, D> D parseObject(O source, Class<D> destinationType) {
-        return mapper.map(source, destinationType);
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+
+        return destinationType.cast(copiers.get(source.getClass()).get(destinationType).copy(source));
     }
 
     /**
@@ -36,7 +66,112 @@ public class Mapper {
      * @return Uma lista contendo os objetos convertidos no tipo de destino especificado.
      */
     public static <O, D> List<D> parseListObject(List<O> source, Class<D> destinationType) {
-        return source.stream().map(x -> mapper.map(x, destinationType)).toList();
+        return source.stream().map(x -> parseObject(x, destinationType)).toList();
     }
-}
 
+    /**
+     * Copiador das propriedades de uma classe de origem para uma classe de destino.
+     * Os MethodHandles são adaptados para tipos genéricos (Object), de forma que a cópia
+     * de cada propriedade não aloca objetos além do próprio objeto de destino.
+     */
+    private static final class PropertyCopier {
+
+        private static final MethodHandle COPY_DATE;
+
+        static {
+            try {
+                COPY_DATE = MethodHandles.lookup().findStatic(PropertyCopier.class, "copyDate",
+                        MethodType.methodType(Object.class, Object.class));
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final MethodHandle constructor;
+        private final MethodHandle[] getters;
+        private final MethodHandle[] setters;
+
+        private PropertyCopier(MethodHandle constructor, MethodHandle[] getters, MethodHandle[] setters) {
+            this.constructor = constructor;
+            this.getters = getters;
+            this.setters = setters;
+        }
+
+        /**
+         * Resolve o construtor do destino e os pares getter/setter de mesmo nome e tipo compatível.
+         *
+         * @param sourceType      Classe de origem.
+         * @param destinationType Classe de destino, que deve possuir um construtor público sem argumentos.
+         * @return O copiador para o par de classes.
+         */
+        private static PropertyCopier of(Class<?> sourceType, Class<?> destinationType) {
+            var lookup = MethodHandles.publicLookup();
+
+            try {
+                var constructor = lookup.findConstructor(destinationType, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+
+                Map<String, PropertyDescriptor> sourceProperties = Arrays
+                        .stream(Introspector.getBeanInfo(sourceType).getPropertyDescriptors())
+                        .filter(property -> property.getReadMethod() != null)
+                        .collect(Collectors.toMap(PropertyDescriptor::getName, Function.identity()));
+
+                List<MethodHandle> getters = new ArrayList<>();
+                List<MethodHandle> setters = new ArrayList<>();
+
+                for (var destinationProperty : Introspector.getBeanInfo(destinationType).getPropertyDescriptors()) {
+                    var sourceProperty = sourceProperties.get(destinationProperty.getName());
+
+                    if (destinationProperty.getWriteMethod() == null || sourceProperty == null
+                            || !isAssignable(destinationProperty.getPropertyType(), sourceProperty.getPropertyType())) {
+                        continue;
+                    }
+
+                    var getter = lookup.unreflect(sourceProperty.getReadMethod())
+                            .asType(MethodType.methodType(Object.class, Object.class));
+
+                    if (Date.class.isAssignableFrom(sourceProperty.getPropertyType())) {
+                        getter = MethodHandles.filterReturnValue(getter, COPY_DATE);
+                    }
+
+                    getters.add(getter);
+                    setters.add(lookup.unreflect(destinationProperty.getWriteMethod())
+                            .asType(MethodType.methodType(void.class, Object.class, Object.class)));
+                }
+
+                return new PropertyCopier(constructor, getters.toArray(MethodHandle[]::new), setters.toArray(MethodHandle[]::new));
+            } catch (IntrospectionException | ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot map " + sourceType.getName() + " to " + destinationType.getName(), e);
+            }
+        }
+
+        private static boolean isAssignable(Class<?> destination, Class<?> source) {
+            return MethodType.methodType(destination).wrap().returnType()
+                    .isAssignableFrom(MethodType.methodType(source).wrap().returnType());
+        }
+
+        private static Object copyDate(Object value) {
+            return value == null ? null : ((Date) value).clone();
+        }
+
+        /**
+         * Cria um novo objeto de destino e copia as propriedades do objeto de origem.
+         *
+         * @param source Objeto de origem.
+         * @return O objeto de destino preenchido.
+         */
+        private Object copy(Object source) {
+            try {
+                var destination = (Object) constructor.invokeExact();
+
+                for (int i = 0; i < getters.length; i++) {
+                    setters[i].invokeExact(destination, (Object) getters[i].invokeExact(source));
+                }
+
+                return destination;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to map " + source.getClass().getName(), e);
+            }
+        }
+    }
+}
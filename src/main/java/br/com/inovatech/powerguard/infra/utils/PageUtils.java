@@ -1,16 +1,32 @@
 package br.com.inovatech.powerguard.infra.utils;
 
+import br.com.inovatech.powerguard.infra.exceptions.InvalidCursorException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+
 /**
  * Classe utilitária para manipulação de paginação de dados.
- * Esta classe fornece métodos para criar objetos Pageable
- * e calcular a última página com base na contagem total de itens.
+ * Esta classe fornece métodos para criar objetos Pageable,
+ * calcular a última página com base na contagem total de itens
+ * e codificar os cursores da paginação por cursor (keyset).
  */
 public class PageUtils {
 
+    private static final String CURSOR_SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    // Quantidade de bytes da assinatura mantidos no cursor.
+    private static final int CURSOR_SIGNATURE_LENGTH = 12;
+
     /**
      * Cria um objeto Pageable com base nos parâmetros fornecidos.
      *
@@ -29,17 +45,97 @@ public class PageUtils {
     /**
      * Retorna o número da última página com base na contagem total de itens.
      *
-     * @param count A contagem total de itens.
+     * @param count    A contagem total de itens.
+     * @param pageSize A quantidade de itens por página.
      * @return O número da última página, ou null se a contagem for inválida.
      * Se a contagem for menor que zero, será retornado null.
      * Se a contagem for um número positivo, a última página será calculada
-     * com base na suposição de que cada página contém 10 itens.
+     * com base no tamanho de página informado.
      */
-    public static Integer getLastPage(Integer count) {
+    public static Integer getLastPage(Integer count, int pageSize) {
         if (count == null || count < 0) return null;
 
-        if (count % 10 != 0) return (count / 10) + 1;
+        if (count % pageSize != 0) return (count / pageSize) + 1;
+
+        return count / pageSize;
+    }
 
-        return count / 10;
+    /**
+     * Cria um objeto Pageable para a paginação por cursor, ordenado por data de criação e ID.
+     *
+     * @param size      O número de itens por página.
+     * @param direction A direção da ordenação (ASC ou DESC).
+     * @return Um objeto Pageable da primeira página a partir do cursor.
+     */
+    public static Pageable cursorPageable(int size, String direction) {
+        var sort = direction.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+        return PageRequest.of(0, size, Sort.by(sort, "createdAt").and(Sort.by(sort, "id")));
+    }
+
+    /**
+     * Codifica a posição de um item como um cursor opaco, assinado com HMAC-SHA256 para que
+     * cursores alterados pelo cliente sejam rejeitados.
+     *
+     * @param createdAt A data de criação do último item da página, ou null se o item não a possuir
+     *                  (codificada como data vazia).
+     * @param id        O ID do último item da página.
+     * @param secret    Chave usada para assinar o cursor.
+     * @return O cursor codificado em Base64 (URL safe), no formato posição.assinatura.
+     */
+    public static String encodeCursor(Date createdAt, String id, String secret) {
+        var raw = ((createdAt == null ? "" : String.valueOf(createdAt.getTime())) + ":" + id).getBytes(StandardCharsets.UTF_8);
+        var encoder = Base64.getUrlEncoder().withoutPadding();
+
+        return encoder.encodeToString(raw) + "." + encoder.encodeToString(sign(raw, secret));
+    }
+
+    /**
+     * Decodifica um cursor gerado por encodeCursor, verificando a sua assinatura.
+     *
+     * @param cursor O cursor opaco recebido do cliente.
+     * @param secret Chave usada para assinar o cursor.
+     * @return A posição (data de criação e ID) representada pelo cursor.
+     * @throws InvalidCursorException Se o cursor não for válido ou tiver sido alterado.
+     */
+    public static Cursor decodeCursor(String cursor, String secret) {
+        try {
+            var signatureStart = cursor.lastIndexOf('.');
+            var decoder = Base64.getUrlDecoder();
+            var raw = decoder.decode(cursor.substring(0, signatureStart));
+            var signature = decoder.decode(cursor.substring(signatureStart + 1));
+
+            if (!MessageDigest.isEqual(signature, sign(raw, secret))) {
+                throw new InvalidCursorException("Invalid cursor!");
+            }
+
+            var position = new String(raw, StandardCharsets.UTF_8);
+            var separator = position.indexOf(':');
+            var createdAt = separator == 0 ? Long.MIN_VALUE : Long.parseLong(position.substring(0, separator));
+
+            // Long.MIN_VALUE marcava a data ausente em cursores emitidos antes da data vazia.
+            return new Cursor(createdAt == Long.MIN_VALUE ? null : new Date(createdAt), position.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException("Invalid cursor!");
+        }
+    }
+
+    private static byte[] sign(byte[] raw, String secret) {
+        try {
+            var mac = Mac.getInstance(CURSOR_SIGNATURE_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), CURSOR_SIGNATURE_ALGORITHM));
+            return Arrays.copyOf(mac.doFinal(raw), CURSOR_SIGNATURE_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign pagination cursor", e);
+        }
+    }
+
+    /**
+     * Posição de um item na paginação por cursor.
+     *
+     * @param createdAt A data de criação do item, ou null se o item não a possuir.
+     * @param id        O ID do item.
+     */
+    public record Cursor(Date createdAt, String id) {
     }
 }
@@ -2,17 +2,41 @@ package br.com.inovatech.powerguard.repositories;
 
 import br.com.inovatech.powerguard.domains.EnergyDomain;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 
 public interface EnergyRepository extends ReactiveMongoRepository<EnergyDomain, String> {
 
-    @Query("{ 'building': ?0, 'createdAt': { $gte: ?1, $lt: ?2 } }")
-    Flux<EnergyDomain> findByBuildingAndToday(String building, LocalDateTime startOfDay, LocalDateTime endOfDay);
-
     @Query("{ }")
     Flux<EnergyDomain> findAll(Pageable pageable);
+
+    // O MongoDB ordena createdAt nulo (ou ausente) antes de qualquer data: no sentido ASC essas
+    // leituras vêm primeiro e no sentido DESC, por último.
+    @Query("{ $or: [ { 'createdAt': { $gt: ?0 } }, { 'createdAt': ?0, '_id': { $gt: ?1 } } ] }")
+    Flux<EnergyDomain> findAfterCursor(Date createdAt, String id, Pageable pageable);
+
+    @Query("{ $or: [ { 'createdAt': null, '_id': { $gt: ?0 } }, { 'createdAt': { $ne: null } } ] }")
+    Flux<EnergyDomain> findAfterNullCursor(String id, Pageable pageable);
+
+    @Query("{ $or: [ { 'createdAt': { $lt: ?0 } }, { 'createdAt': ?0, '_id': { $lt: ?1 } }, { 'createdAt': null } ] }")
+    Flux<EnergyDomain> findBeforeCursor(Date createdAt, String id, Pageable pageable);
+
+    @Query("{ 'createdAt': null, '_id': { $lt: ?0 } }")
+    Flux<EnergyDomain> findBeforeNullCursor(String id, Pageable pageable);
+
+    @Meta(cursorBatchSize = 500)
+    @Query("{ 'createdAt': { $gte: ?0, $lt: ?1 } }")
+    Flux<EnergyDomain> streamByCreatedAtBetween(LocalDateTime from, LocalDateTime to, Sort sort);
+
+    @Query("{ 'building': ?0, 'timestamp': { $gte: ?1 } }")
+    Flux<EnergyDomain> findByBuildingAndTimestampSince(String building, LocalDateTime since);
+
+    @Query(value = "{ 'building': ?0, 'createdAt': { $gte: ?1 } }", fields = "{ '_id': 1 }")
+    Flux<EnergyDomain> findIdsByBuildingSince(String building, LocalDateTime since);
 }
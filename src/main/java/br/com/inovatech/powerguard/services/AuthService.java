@@ -3,9 +3,8 @@ package br.com.inovatech.powerguard.services;
 import br.com.inovatech.powerguard.domains.UserDomain;
 import br.com.inovatech.powerguard.dtos.SigninDTO;
 import br.com.inovatech.powerguard.dtos.TokenDTO;
-import br.com.inovatech.powerguard.infra.configs.CacheEnvironmentConfig;
-import br.com.inovatech.powerguard.infra.security.configs.AuthenticationEnvironmentConfig;
-import br.com.inovatech.powerguard.infra.security.roles.UserRoles;
+import br.com.inovatech.powerguard.infra.buildings.BuildingRegistry;
+import br.com.inovatech.powerguard.infra.security.configs.CachedUserDetailsService;
 import br.com.inovatech.powerguard.infra.security.utils.AuthenticatedUserUtils;
 import br.com.inovatech.powerguard.infra.security.utils.JwtUtils;
 import br.com.inovatech.powerguard.repositories.UserRepository;
@@ -45,10 +44,10 @@ public class AuthService {
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private CacheEnvironmentConfig cacheKeys;
+    private BuildingRegistry buildingRegistry;
 
     @Autowired
-    private AuthenticationEnvironmentConfig authenticationEnvironments;
+    private CachedUserDetailsService userDetailsService;
 
     /**
      * Autentica um usuário baseado nas credenciais fornecidas no SigninDTO.
@@ -59,7 +58,8 @@ public class AuthService {
      */
     public Mono<ResponseEntity<TokenDTO>> signin(SigninDTO signinDTO) {
         log.info("Logging in");
-        return userRepository.findByUsername(signinDTO.getUsername())
+        return userDetailsService.findByUsername(signinDTO.getUsername())
+                .cast(UserDomain.class)
                 .switchIfEmpty(Mono.error(new BadCredentialsException("Invalid username or password!")))
                 .flatMap(user -> reactiveAuthenticationManager
                         .authenticate(new UsernamePasswordAuthenticationToken(signinDTO.getUsername(), signinDTO.getPassword()))
@@ -88,27 +88,26 @@ public class AuthService {
 
     /**
      * Método executado após a construção da classe (após injeção de dependências),
-     * responsável por cadastrar usuários padrão definidos no arquivo de configuração
-     * de autenticação. Cada usuário recebe um papel (role), uma chave de cache e uma
-     * senha codificada.
+     * responsável por cadastrar o usuário de cada prédio monitorado definido em
+     * energy.buildings. Cada usuário recebe o papel (role) e a chave de cache do prédio
+     * e uma senha codificada.
      */
     @PostConstruct
     private void signup(){
-        for(int i = 0; i < UserRoles.values().length; i++){
-            var role = UserRoles.values()[i];
-            var username = authenticationEnvironments.getUsernames()[i];
-            var password = authenticationEnvironments.getPasswords()[i];
-            var cacheKey = cacheKeys.getCaches()[i];
+        buildingRegistry.getBuildings().forEach(building -> {
+            var username = building.getUsername();
 
             var user = UserDomain.builder()
                     .username(username)
-                    .password(passwordEncoder.encode(password))
-                    .userRoles(role)
-                    .keyRequest(cacheKey)
+                    .password(passwordEncoder.encode(building.getPassword()))
+                    .userRoles(building.getRole())
+                    .keyRequest(building.getCacheKey())
                     .build();
 
-            userRepository.save(user).subscribe();
-        }
+            userRepository.save(user)
+                    .doOnSuccess(savedUser -> userDetailsService.invalidate(username))
+                    .subscribe();
+        });
     }
 
 }
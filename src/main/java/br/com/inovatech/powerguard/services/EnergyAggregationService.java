@@ -0,0 +1,83 @@
+package br.com.inovatech.powerguard.services;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.dtos.EnergyAggregateDTO;
+import br.com.inovatech.powerguard.infra.aggregation.EnergyAggregationPipeline;
+import br.com.inovatech.powerguard.infra.buildings.BuildingRegistry;
+import br.com.inovatech.powerguard.infra.security.utils.AuthenticatedUserUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service responsável por agregar as leituras de energia do prédio do usuário autenticado
+ * diretamente no MongoDB, em intervalos de tamanho arbitrário. Diferente dos rollups, que
+ * são pré-calculados para algumas granularidades, aqui qualquer medição e função podem ser
+ * pedidas, e apenas os documentos agregados são transferidos para a aplicação.
+ */
+@Slf4j
+@Service
+public class EnergyAggregationService {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private BuildingRegistry buildingRegistry;
+
+    /**
+     * Agrega as leituras do prédio do usuário autenticado em intervalos de tamanho fixo.
+     *
+     * @param from      Início (inclusivo) do intervalo.
+     * @param to        Fim (exclusivo) do intervalo.
+     * @param bucket    Tamanho de cada intervalo de agrupamento (ex.: "15m", "1h", "1d").
+     * @param metrics   Campos de medição a serem agregados.
+     * @param functions Funções de agregação (avg, min, max, sum, count).
+     * @return Flux<EnergyAggregateDTO> com um elemento por intervalo que possui leituras, em ordem cronológica.
+     */
+    public Flux<EnergyAggregateDTO> aggregate(LocalDateTime from, LocalDateTime to, String bucket,
+                                              List<String> metrics, List<String> functions) {
+        log.info("Aggregating energy data");
+
+        return AuthenticatedUserUtils.getUser()
+                .map(user -> EnergyAggregationPipeline.of(buildingRegistry.getByRole(user.getUserRoles()).getBuildingName(),
+                        toDate(from), toDate(to), bucket, metrics, functions))
+                .flatMapMany(pipeline -> mongoTemplate.aggregate(pipeline.toAggregation(),
+                                mongoTemplate.getCollectionName(EnergyDomain.class), Document.class)
+                        .map(document -> toAggregate(pipeline, document)));
+    }
+
+    private EnergyAggregateDTO toAggregate(EnergyAggregationPipeline pipeline, Document document) {
+        Map<String, Map<String, Double>> metrics = new LinkedHashMap<>();
+
+        for (var measurement : pipeline.measurements()) {
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (var function : pipeline.functions()) {
+                var value = document.get(function.outputOf(measurement.getField()), Number.class);
+                values.put(function.name().toLowerCase(), value == null ? null : value.doubleValue());
+            }
+            metrics.put(measurement.getField(), values);
+        }
+
+        return EnergyAggregateDTO.builder()
+                .building(pipeline.building())
+                .bucket(document.getDate(EnergyAggregationPipeline.BUCKET_FIELD))
+                .count(document.get(EnergyAggregationPipeline.COUNT_FIELD, Number.class).longValue())
+                .metrics(metrics)
+                .build();
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.inovatech.powerguard.services;
+
+import br.com.inovatech.powerguard.dtos.EnergyConsumptionDTO;
+import br.com.inovatech.powerguard.infra.buildings.BuildingRegistry;
+import br.com.inovatech.powerguard.infra.consumption.ConsumptionPeriod;
+import br.com.inovatech.powerguard.infra.consumption.EnergyConsumptionIntegrator;
+import br.com.inovatech.powerguard.infra.security.utils.AuthenticatedUserUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service responsável por consultar o consumo de energia (kWh/kVArh) do prédio do usuário
+ * autenticado. O consumo é integrado durante a ingestão, então cada consulta lê um único documento.
+ */
+@Slf4j
+@Service
+public class EnergyConsumptionService {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private BuildingRegistry buildingRegistry;
+
+    /**
+     * Recupera o consumo do prédio do usuário autenticado no dia ou mês que contém a data informada.
+     *
+     * @param period Período do consumo (DAY ou MONTH).
+     * @param date   Data qualquer do período; quando nula, usa a data atual.
+     * @return Mono<ResponseEntity<EnergyConsumptionDTO>> contendo o consumo do período
+     * ou uma resposta sem conteúdo caso não haja dados.
+     */
+    public Mono<ResponseEntity<EnergyConsumptionDTO>> findConsumption(String period, LocalDate date) {
+        log.info("Finding energy consumption");
+        var consumptionPeriod = ConsumptionPeriod.fromName(period);
+        var start = consumptionPeriod.startOf(date == null ? LocalDate.now() : date);
+
+        return AuthenticatedUserUtils.getUser()
+                .flatMap(user -> {
+                    var building = buildingRegistry.getByRole(user.getUserRoles()).getBuildingName();
+
+                    return mongoTemplate.findById(consumptionPeriod.keyOf(building, start), Document.class,
+                            EnergyConsumptionIntegrator.COLLECTION);
+                })
+                .map(this::toConsumption)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
+    private EnergyConsumptionDTO toConsumption(Document document) {
+        Map<String, Double> energy = new LinkedHashMap<>();
+        var storedEnergy = document.get("energy", Document.class);
+
+        if (storedEnergy != null) {
+            storedEnergy.forEach((field, value) -> energy.put(field, ((Number) value).doubleValue()));
+        }
+
+        return EnergyConsumptionDTO.builder()
+                .building(document.getString("building"))
+                .period(document.getString("period"))
+                .start(document.getDate("start"))
+                .energy(energy)
+                .coveredMillis(document.get("coveredMillis", Number.class).longValue())
+                .gapMillis(document.get("gapMillis", Number.class).longValue())
+                .build();
+    }
+}
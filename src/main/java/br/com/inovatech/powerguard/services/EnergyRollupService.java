@@ -0,0 +1,100 @@
+package br.com.inovatech.powerguard.services;
+
+import br.com.inovatech.powerguard.dtos.EnergyRollupDTO;
+import br.com.inovatech.powerguard.dtos.RollupMetricDTO;
+import br.com.inovatech.powerguard.infra.buildings.BuildingRegistry;
+import br.com.inovatech.powerguard.infra.rollups.RollupGranularity;
+import br.com.inovatech.powerguard.infra.security.utils.AuthenticatedUserUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service responsável por consultar os agregados (rollups) de energia do prédio do usuário
+ * autenticado. Os agregados são mantidos pela ingestão, então os gráficos de longos períodos
+ * leem poucas centenas de documentos em vez de todas as leituras do período.
+ */
+@Slf4j
+@Service
+public class EnergyRollupService {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private BuildingRegistry buildingRegistry;
+
+    /**
+     * Recupera os agregados do prédio do usuário autenticado em um intervalo de datas.
+     *
+     * @param granularity Granularidade dos agregados (MINUTE, QUARTER_HOUR, HOUR ou DAY).
+     * @param from        Início (inclusivo) do intervalo.
+     * @param to          Fim (exclusivo) do intervalo.
+     * @return Mono<ResponseEntity<List<EnergyRollupDTO>>> contendo os agregados ordenados por intervalo
+     * ou uma resposta sem conteúdo caso não haja dados.
+     */
+    public Mono<ResponseEntity<List<EnergyRollupDTO>>> findRollups(String granularity, LocalDateTime from, LocalDateTime to) {
+        log.info("Finding energy rollups");
+        var rollupGranularity = RollupGranularity.fromName(granularity);
+
+        return AuthenticatedUserUtils.getUser()
+                .flatMap(user -> {
+                    var building = buildingRegistry.getByRole(user.getUserRoles()).getBuildingName();
+                    var query = Query.query(Criteria.where("building").is(building)
+                                    .and("bucket").gte(toDate(from)).lt(toDate(to)))
+                            .with(Sort.by(Sort.Direction.ASC, "bucket"));
+
+                    return mongoTemplate.find(query, Document.class, rollupGranularity.getCollection())
+                            .map(this::toRollup)
+                            .collectList();
+                })
+                .filter(rollups -> !rollups.isEmpty())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
+    private EnergyRollupDTO toRollup(Document document) {
+        Map<String, RollupMetricDTO> metrics = new LinkedHashMap<>();
+        var storedMetrics = document.get("metrics", Document.class);
+
+        if (storedMetrics != null) {
+            storedMetrics.forEach((field, value) -> {
+                var metric = (Document) value;
+                var count = metric.get("count", Number.class).longValue();
+                var sum = metric.get("sum", Number.class).doubleValue();
+
+                metrics.put(field, RollupMetricDTO.builder()
+                        .count(count)
+                        .sum(sum)
+                        .min(metric.get("min", Number.class).doubleValue())
+                        .max(metric.get("max", Number.class).doubleValue())
+                        .avg(count == 0 ? 0 : sum / count)
+                        .build());
+            });
+        }
+
+        return EnergyRollupDTO.builder()
+                .building(document.getString("building"))
+                .bucket(document.getDate("bucket"))
+                .metrics(metrics)
+                .build();
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
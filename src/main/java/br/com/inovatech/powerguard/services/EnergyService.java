@@ -2,25 +2,41 @@ package br.com.inovatech.powerguard.services;
 
 import br.com.inovatech.powerguard.domains.EnergyDomain;
 import br.com.inovatech.powerguard.dtos.EnergyDTO;
-import br.com.inovatech.powerguard.infra.configs.CacheEnvironmentConfig;
+import br.com.inovatech.powerguard.dtos.EnergyPageDTO;
+import br.com.inovatech.powerguard.infra.buildings.BuildingRegistry;
+import br.com.inovatech.powerguard.infra.buildings.MonitoredBuilding;
+import br.com.inovatech.powerguard.infra.cache.EnergySnapshotStore;
+import br.com.inovatech.powerguard.infra.cache.EnergyWindowBuffer;
+import br.com.inovatech.powerguard.infra.configs.LiveEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.configs.SnapshotEnvironmentConfig;
 import br.com.inovatech.powerguard.infra.exceptions.EnergyNotFoundException;
 import br.com.inovatech.powerguard.infra.external.proxy.EnergyMonitoringAPI;
+import br.com.inovatech.powerguard.infra.ingest.EnergyBulkWriter;
+import br.com.inovatech.powerguard.infra.ingest.EnergyDerivedDataReconciler;
+import br.com.inovatech.powerguard.infra.ingest.EnergyIdIndex;
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+import br.com.inovatech.powerguard.infra.live.EnergyLiveFeed;
 import br.com.inovatech.powerguard.infra.security.utils.AuthenticatedUserUtils;
-import br.com.inovatech.powerguard.infra.utils.BuildingType;
+import br.com.inovatech.powerguard.infra.utils.ETagUtils;
 import br.com.inovatech.powerguard.infra.utils.Mapper;
 import br.com.inovatech.powerguard.infra.utils.PageUtils;
-import br.com.inovatech.powerguard.infra.utils.StringUtil;
 import br.com.inovatech.powerguard.repositories.EnergyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 
@@ -35,32 +51,67 @@ import java.util.List;
 public class EnergyService {
 
     @Autowired
-    private ReactiveRedisTemplate<String, Object> redisTemplate;
+    private EnergySnapshotStore energySnapshotStore;
+
+    @Autowired
+    private EnergyWindowBuffer energyWindowBuffer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Autowired
     private EnergyRepository energyRepository;
 
     @Autowired
-    private List<EnergyMonitoringAPI> energyMonitoringAPI;
+    private BuildingRegistry buildingRegistry;
+
+    @Autowired
+    private EnergyIdIndex energyIdIndex;
+
+    @Autowired
+    private EnergyBulkWriter energyBulkWriter;
 
     @Autowired
-    private CacheEnvironmentConfig cacheKeys;
+    private EnergyDerivedDataReconciler energyDerivedDataReconciler;
+
+    @Autowired
+    private EnergyLiveFeed energyLiveFeed;
+
+    @Autowired
+    private LiveEnvironmentConfig liveConfig;
+
+    @Autowired
+    private SnapshotEnvironmentConfig snapshotConfig;
+
+    // Chave usada para assinar os cursores da paginação por cursor.
+    @Value("${security.key}")
+    private String CURSOR_KEY;
 
     /**
      * Recupera todos os dados de energia das 24 horas de um prédio para o usuário autenticado.
+     * As leituras vêm da janela deslizante em memória do prédio, que mantém exatamente as
+     * últimas 24 horas e guarda a resposta já serializada. Com o parâmetro since, apenas as leituras posteriores
+     * são lidas do Redis, permitindo a sincronização incremental do cliente.
+     *
+     * As respostas levam ETag e Last-Modified; requisições condicionais sem alteração recebem 304.
      *
-     * @return Mono<ResponseEntity < List < EnergyDTO>>> contendo a lista de dados de energia
+     * @param since Timestamp (epoch em milissegundos) da última leitura que o cliente possui, ou null.
+     * @return Mono<ResponseEntity<byte[]>> contendo a lista de dados de energia em JSON
      * ou uma resposta sem conteúdo caso o cache esteja vazio.
      */
-    @SuppressWarnings("unchecked")
-    public Mono<ResponseEntity<List<EnergyDTO>>> findEnergyDataLast24Hours() {
+    public Mono<ResponseEntity<byte[]>> findEnergyDataLast24Hours(Long since) {
         log.info("Finding all energy data from the last 24 hours");
         return AuthenticatedUserUtils.getUser()
-                .flatMap(user -> redisTemplate.opsForValue().get(user.getKeyRequest()))
-                .map(result -> {
-                    List<EnergyDTO> energyList = (List<EnergyDTO>) result;
-                    return ResponseEntity.ok(energyList);
-                })
+                .flatMap(user -> since != null
+                        ? energySnapshotStore.readSince(user.getKeyRequest(), since)
+                                .map(energyBatch -> jsonResponse(toJson(energyBatch.toDTOs())))
+                        : energyWindowBuffer.read(user.getKeyRequest(), buildingRegistry.getByRole(user.getUserRoles()).getBuildingName(),
+                                        energyBatch -> toJson(energyBatch.toDTOs()))
+                                .map(window -> ResponseEntity.ok()
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .eTag(window.etag())
+                                        .lastModified(window.lastModified())
+                                        .body(window.body())))
                 .defaultIfEmpty(ResponseEntity.noContent().build());
     }
 
@@ -71,17 +122,104 @@ public class EnergyService {
      * @param size      Tamanho da página.
      * @param direction Direção da ordenação (ASC ou DESC).
      * @param orderBy   Campo pelo qual os dados devem ser ordenados.
-     * @return Mono<ResponseEntity < List < EnergyDTO>>> contendo a lista de dados de energia
+     * @return Mono<ResponseEntity<byte[]>> contendo a lista de dados de energia em JSON, com ETag,
      * ou uma resposta sem conteúdo caso não haja dados.
      */
-    public Mono<ResponseEntity<List<EnergyDTO>>> findAllEnergyDataHistory(int page, int size, String direction, String orderBy) {
+    public Mono<ResponseEntity<byte[]>> findAllEnergyDataHistory(int page, int size, String direction, String orderBy) {
         log.info("Finding all energy data history");
         return energyRepository.findAll(PageUtils.pageable(page, size, direction, orderBy))
                 .collectList()
-                .map(energies -> ResponseEntity.ok(Mapper.parseListObject(energies, EnergyDTO.class)))
+                .filter(energies -> !energies.isEmpty())
+                .map(energies -> jsonResponse(toJson(Mapper.parseListObject(energies, EnergyDTO.class))))
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Recupera o histórico de dados de energia com paginação por cursor (keyset), ordenado por
+     * data de criação e ID. Diferente da paginação por offset, o custo de cada página não depende
+     * da profundidade, pois a consulta parte diretamente da posição indicada pelo cursor.
+     * Leituras sem data de criação também são paginadas, na posição em que o MongoDB as ordena.
+     *
+     * @param cursor    Cursor retornado pela página anterior; se nulo, retorna a primeira página.
+     * @param size      Tamanho da página.
+     * @param direction Direção da ordenação (ASC ou DESC).
+     * @return Mono<ResponseEntity<byte[]>> contendo a página e o cursor da próxima página em JSON,
+     * com ETag, ou uma resposta sem conteúdo caso não haja dados.
+     */
+    public Mono<ResponseEntity<byte[]>> findEnergyDataHistoryByCursor(String cursor, int size, String direction) {
+        log.info("Finding energy data history by cursor");
+        var pageable = PageUtils.cursorPageable(size, direction);
+
+        Flux<EnergyDomain> energies;
+        if (cursor == null || cursor.isBlank()) {
+            energies = energyRepository.findAll(pageable);
+        } else {
+            var position = PageUtils.decodeCursor(cursor, CURSOR_KEY);
+            var ascending = direction.equalsIgnoreCase("ASC");
+
+            if (position.createdAt() == null) {
+                energies = ascending
+                        ? energyRepository.findAfterNullCursor(position.id(), pageable)
+                        : energyRepository.findBeforeNullCursor(position.id(), pageable);
+            } else {
+                energies = ascending
+                        ? energyRepository.findAfterCursor(position.createdAt(), position.id(), pageable)
+                        : energyRepository.findBeforeCursor(position.createdAt(), position.id(), pageable);
+            }
+        }
+
+        return energies.collectList()
+                .filter(page -> !page.isEmpty())
+                .map(page -> {
+                    var last = page.get(page.size() - 1);
+                    var nextCursor = page.size() < size ? null : PageUtils.encodeCursor(last.getCreatedAt(), last.getId(), CURSOR_KEY);
+
+                    return jsonResponse(toJson(EnergyPageDTO.builder()
+                            .content(Mapper.parseListObject(page, EnergyDTO.class))
+                            .nextCursor(nextCursor)
+                            .build()));
+                })
                 .defaultIfEmpty(ResponseEntity.noContent().build());
     }
 
+    /**
+     * Transmite o histórico de dados de energia em um intervalo de datas, sem carregar o
+     * resultado inteiro em memória. Os dados são emitidos conforme o banco os retorna,
+     * respeitando a demanda (backpressure) de quem consome o fluxo.
+     *
+     * @param from      Data inicial (inclusiva) de criação dos dados; se nula, desde o início.
+     * @param to        Data final (exclusiva) de criação dos dados; se nula, até o momento atual.
+     * @param direction Direção da ordenação por data de criação (ASC ou DESC).
+     * @return Flux<EnergyDTO> com os dados de energia do intervalo.
+     */
+    public Flux<EnergyDTO> streamEnergyDataHistory(LocalDateTime from, LocalDateTime to, String direction) {
+        log.info("Streaming energy data history");
+        var start = from != null ? from : LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+        var end = to != null ? to : LocalDateTime.now();
+        var sort = Sort.by(direction.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC, "createdAt");
+
+        return energyRepository.streamByCreatedAtBetween(start, end, sort)
+                .map(energy -> Mapper.parseObject(energy, EnergyDTO.class));
+    }
+
+    /**
+     * Envia em tempo real as novas leituras do prédio do usuário autenticado. O fluxo começa com
+     * as últimas leituras recebidas e intercala comentários de heartbeat para manter a conexão
+     * aberta através de proxies.
+     *
+     * @return Flux<ServerSentEvent<EnergyDTO>> infinito com as leituras do prédio.
+     */
+    public Flux<ServerSentEvent<EnergyDTO>> streamLiveEnergyData() {
+        log.info("Streaming live energy data");
+        var heartbeat = Flux.interval(liveConfig.getHeartbeat())
+                .map(tick -> ServerSentEvent.<EnergyDTO>builder().comment("heartbeat").build());
+
+        return AuthenticatedUserUtils.getUser()
+                .flatMapMany(user -> energyLiveFeed.subscribe(buildingRegistry.getByRole(user.getUserRoles()).getBuildingName()))
+                .map(energy -> ServerSentEvent.builder(energy).id(energy.getId()).event("energy").build())
+                .mergeWith(heartbeat);
+    }
+
     /**
      * Recupera os dados de energia por ID.
      *
@@ -96,84 +234,115 @@ public class EnergyService {
     }
 
     /**
-     * Método agendado para atualizar os dados de energia no banco de dados e no cache Redis
-     * a cada 5 minutos (300000 ms). Para cada prédio monitorado, o serviço atualiza os dados no banco
-     * de dados e armazena os novos dados no cache correspondente.
+     * Atualiza os dados de energia de um prédio no banco de dados e no cache Redis.
+     * O serviço grava os novos dados no banco de dados e adiciona apenas as leituras novas ao
+     * snapshot do prédio, removendo as que saíram da janela de 24 horas. O agendamento de cada
+     * prédio é feito pelo EnergyRefreshScheduler.
+     *
+     * @param building Prédio monitorado a ser atualizado.
+     * @return Mono<Void> indicando a conclusão da atualização.
      */
-    @Scheduled(fixedRate = 300000)
-    private void refreshEnergyData() {
-        log.warn("Refreshing Energy Data");
-
-        log.warn("Updating Energy data in Database");
-        energyMonitoringAPI.forEach(building -> {
-            updateEnergyInDB(building)
-                    .thenMany(findAllByBuilding(building.getBuildingName()))
-                    .collectList()
-                    .flatMapMany(energyList -> {
-                        var cacheKey = cacheKeys.getCaches();
-                        String key = "";
-
-                        if (building.getBuildingName().equals(BuildingType.Building_A.name())) {
-                            key = cacheKey[0];
-                        } else if (building.getBuildingName().equals(BuildingType.Building_C.name())) {
-                            key = cacheKey[1];
-                        } else {
-                            key = cacheKey[2];
-                        }
-
-                        return redisTemplate.opsForValue()
-                                .set(key, energyList)
-                                .thenMany(Flux.fromIterable(energyList));
-                    })
-                    .subscribe();
-        });
+    public Mono<Void> refreshEnergyData(MonitoredBuilding building) {
+        log.warn("Refreshing Energy Data in building: {}", building.getBuildingName());
+
+        return energyDerivedDataReconciler.reconcileIfDue(building.getBuildingName())
+                .onErrorResume(e -> {
+                    log.error("Failed to reconcile derived energy data of building {}: {}", building.getBuildingName(), e.getMessage());
+                    return Mono.empty();
+                })
+                .then(updateEnergyInDB(building))
+                .flatMap(savedEnergies -> energySnapshotStore.append(building.getCacheKey(), savedEnergies,
+                        () -> findAllByBuilding(building.getBuildingName())))
+                .then();
     }
 
     /**
-     * Recupera todos os dados de energia de um prédio específico no dia atual.
+     * Recupera todos os dados de energia de um prédio específico dentro da janela do snapshot.
      *
      * @param building Nome do prédio para o qual os dados de energia devem ser recuperados.
-     * @return Flux<EnergyDTO> contendo os dados de energia correspondentes ao prédio.
+     * @return Flux<EnergyReading> contendo as leituras de energia correspondentes ao prédio.
      */
-    private Flux<EnergyDTO> findAllByBuilding(String building) {
-        var startOfDay = LocalDate.now().atStartOfDay();
-        var endOfDay = startOfDay.plusDays(1);
-        return energyRepository.findByBuildingAndToday(building, startOfDay, endOfDay)
-                .map(energyDomain -> Mapper.parseObject(energyDomain, EnergyDTO.class));
+    private Flux<EnergyReading> findAllByBuilding(String building) {
+        var since = LocalDateTime.now().minus(snapshotConfig.getWindow());
+        return energyRepository.findByBuildingAndTimestampSince(building, since)
+                .map(EnergyReading::from);
     }
 
     /**
      * Atualiza o banco de dados com novos dados de energia de um determinado prédio.
-     * Apenas novos dados, que ainda não estão no banco, são salvos.
+     * Os dados cujo ID já está no índice em memória são descartados e os restantes são
+     * gravados em lotes de upsert, que ignoram IDs já existentes no banco. As leituras
+     * efetivamente inseridas em cada lote atualizam os agregados (rollups) e o consumo do prédio
+     * e são publicadas no feed ao vivo assim que o lote é gravado; se um lote falhar depois de
+     * gravado, os dados derivados são reconciliados no próximo ciclo.
      *
      * @param building API de monitoramento do prédio a partir da qual os dados serão recuperados.
-     * @return Mono<Void> indicando a conclusão da operação de atualização.
+     * @return Mono<List<EnergyReading>> com as leituras efetivamente inseridas.
      */
-    private Mono<Void> updateEnergyInDB(EnergyMonitoringAPI building) {
-        return energyRepository.findAll()
-                .collectList()
-                .flatMap(dbEnergy ->
-                        building.getEnergyData().filter(buildingEnergy -> {
-                                    String buildingName = building.getBuildingName();
-
-                                    buildingEnergy.setBuilding(buildingName);
-
-                                    buildingEnergy.setId(buildingEnergy.getId() +
-                                            StringUtil.getAnyCharInString(buildingName, buildingName.length() - 1));
-
-                                    return dbEnergy.stream().noneMatch(db ->
-                                            buildingEnergy.getId().equals(db.getId()));
-                                }).collectList()
-                                .flatMapMany(newEnergiesData ->
-                                        Flux.fromIterable(newEnergiesData)
-                                                .flatMap(newEnergy ->
-                                                        energyRepository.save(Mapper.parseObject(newEnergy, EnergyDomain.class))
-                                                                .doOnSuccess(savedEnergyDomain ->
-                                                                        log.warn("Saved new energy data with ID: {} in building: {}",
-                                                                                savedEnergyDomain.getId(), building.getBuildingName())
-                                                                )
-                                                ).doFinally(x -> Mapper.parseObject(x, EnergyDTO.class))
-                                ).then());
+    private Mono<List<EnergyReading>> updateEnergyInDB(EnergyMonitoringAPI building) {
+        String buildingName = building.getBuildingName();
+        String idKey = building.getIdKey();
+
+        return building.getEnergyData(buildingEnergy ->
+                        energyIdIndex.contains(buildingName, buildEnergyId(buildingEnergy.getId(), idKey)))
+                .doOnNext(buildingEnergy -> {
+                    buildingEnergy.setBuilding(buildingName);
+                    buildingEnergy.setId(buildEnergyId(buildingEnergy.getId(), idKey));
+                })
+                .filter(buildingEnergy -> !energyIdIndex.contains(buildingName, buildingEnergy.getId()))
+                .distinct(EnergyDTO::getId)
+                .map(EnergyReading::from)
+                .transform(newEnergies -> energyBulkWriter.write(buildingName, newEnergies))
+                .filter(savedChunk -> !savedChunk.isEmpty())
+                .concatMap(savedChunk -> energyDerivedDataReconciler.apply(buildingName, savedChunk)
+                        .then(energyLiveFeed.publish(buildingName, savedChunk)
+                                .onErrorResume(e -> {
+                                    log.error("Failed to publish live energy data of building {}: {}", buildingName, e.getMessage());
+                                    return Mono.empty();
+                                }))
+                        .thenReturn(savedChunk))
+                .flatMapIterable(savedChunk -> savedChunk)
+                .doOnNext(savedEnergy ->
+                        log.warn("Saved new energy data with ID: {} in building: {}",
+                                savedEnergy.id(), buildingName))
+                .collectList();
+    }
+
+    /**
+     * Monta o ID sintético de um dado de energia, concatenando o ID recebido da API externa
+     * com a chave de ID do prédio.
+     *
+     * @param id    ID do dado de energia na API externa.
+     * @param idKey Chave de ID do prédio ao qual o dado pertence.
+     * @return O ID sintético usado no banco de dados.
+     */
+    private String buildEnergyId(String id, String idKey) {
+        return id + idKey;
+    }
+
+    /**
+     * Serializa os dados de energia no JSON da resposta HTTP.
+     *
+     * @param energies Dados de energia a serem serializados.
+     * @return Os bytes JSON correspondentes.
+     */
+    private byte[] toJson(Object energies) {
+        try {
+            return objectMapper.writeValueAsBytes(energies);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize energy data", e);
+        }
+    }
+
+    /**
+     * Monta uma resposta JSON com ETag fraco calculado a partir do conteúdo. O WebFlux compara o
+     * ETag com o If-None-Match da requisição e responde 304 quando o conteúdo não mudou.
+     */
+    private static ResponseEntity<byte[]> jsonResponse(byte[] body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(ETagUtils.weakETag(body))
+                .body(body);
     }
 
 
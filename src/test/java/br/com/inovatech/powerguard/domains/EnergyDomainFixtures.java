@@ -0,0 +1,33 @@
+package br.com.inovatech.powerguard.domains;
+
+import java.util.Date;
+
+/**
+ * Documentos de energia usados nos testes e benchmarks.
+ */
+public final class EnergyDomainFixtures {
+
+    private EnergyDomainFixtures() {
+    }
+
+    /**
+     * Cria um documento do Building_A com todas as grandezas preenchidas a partir do índice,
+     * com ID "{i}A" e leituras a cada 5 minutos.
+     */
+    public static EnergyDomain energy(int i) {
+        double value = i;
+
+        return EnergyDomain.builder()
+                .id(i + "A")
+                .building("Building_A")
+                .timestamp(new Date(1_700_000_000_000L + i * 300_000L))
+                .tensaoa(220 + value).tensaob(221 + value).tensaoc(219 + value)
+                .correntea(10 + value).correnteb(11 + value).correntec(12 + value)
+                .potativaa(2 + value).potativab(2.1 + value).potativac(2.2 + value).potativatotal(6.3 + value)
+                .potreativaa(0.5 + value).potreativab(0.6 + value).potreativac(0.7 + value).potreativatotal(1.8 + value)
+                .potaparentea(2.5 + value).potaparenteb(2.6 + value).potaparentec(2.7 + value).potaparentetotal(7.8 + value)
+                .fatorpotenciaa(0.91).fatorpotenciab(0.92).fatorpotenciac(0.93).fatorpotenciatotal(0.92)
+                .createdAt(new Date(1_700_000_000_000L))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.inovatech.powerguard.infra.buildings;
+
+import br.com.inovatech.powerguard.infra.configs.BuildingsEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.configs.RefreshEnvironmentConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BuildingRegistryTest {
+
+    private static BuildingsEnvironmentConfig.Building building(String name, String idKey) {
+        var building = new BuildingsEnvironmentConfig.Building();
+        building.setName(name);
+        building.setIdKey(idKey);
+        building.setEndpoint("/" + name);
+        building.setCacheKey("cache:" + name);
+        building.setRole("USER_" + name);
+        building.setUsername(name);
+        building.setPassword(name);
+        return building;
+    }
+
+    private static BuildingRegistry registry(BuildingsEnvironmentConfig.Building... buildings) {
+        var config = new BuildingsEnvironmentConfig();
+        config.setBuildings(Arrays.asList(buildings));
+
+        var registry = new BuildingRegistry();
+        ReflectionTestUtils.setField(registry, "buildingsConfig", config);
+        ReflectionTestUtils.setField(registry, "refreshConfig", new RefreshEnvironmentConfig());
+        ReflectionTestUtils.setField(registry, "CONCURRENCY", 1);
+        ReflectionTestUtils.invokeMethod(registry, "init");
+        return registry;
+    }
+
+    @Test
+    void usesTheLastCharacterOfTheNameWhenTheIdKeyIsOmitted() {
+        var registry = registry(building("Building_A", null), building("Building_C", " "));
+
+        assertEquals("A", registry.getByName("Building_A").getIdKey());
+        assertEquals("C", registry.getByName("Building_C").getIdKey());
+    }
+
+    @Test
+    void acceptsBuildingsSharingTheLastCharacterWithDistinctIdKeys() {
+        var registry = registry(building("Building_A", null), building("Annex_A", "AX"), building("Tower_A", "TA"));
+
+        assertEquals("AX", registry.getByName("Annex_A").getIdKey());
+        assertEquals("TA", registry.getByName("Tower_A").getIdKey());
+    }
+
+    @Test
+    void rejectsRepeatedIdKeys() {
+        assertThrows(IllegalStateException.class,
+                () -> registry(building("Building_A", null), building("Annex_A", null)));
+        assertThrows(IllegalStateException.class,
+                () -> registry(building("Building_A", "B1"), building("Building_B", "B1")));
+    }
+
+    @Test
+    void rejectsIdKeysThatDifferOnlyByLeadingDigits() {
+        assertThrows(IllegalStateException.class,
+                () -> registry(building("Building_A", null), building("Annex_A", "1A")));
+        assertDoesNotThrow(() -> registry(building("Building_A", null), building("Annex_A", "X1A")));
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+import br.com.inovatech.powerguard.infra.readings.Measurement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static br.com.inovatech.powerguard.infra.readings.EnergyReadingFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinarySnapshotCodecTest {
+
+    private final BinarySnapshotCodec codec = new BinarySnapshotCodec();
+
+    private static List<EnergyReading> readings(int count) {
+        List<EnergyReading> readings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            readings.add(reading(i + "A", i % 3 == 0 ? "Building_C" : "Building_A", 1_700_000_000_000L + i * 300_000L, i));
+        }
+        return readings;
+    }
+
+    private static List<EnergyReading> rows(EnergyReadingBatch batch) {
+        return IntStream.range(0, batch.size()).mapToObj(batch::get).toList();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnapshotCompression.class)
+    void roundTripsEveryReading(SnapshotCompression compression) {
+        var readings = readings(288);
+
+        var encoded = codec.encode(EnergyReadingBatch.of(readings), compression);
+
+        assertTrue(codec.supports(encoded));
+        assertEquals(compression.getCode(), encoded[5]);
+        assertEquals(readings, rows(codec.decode(encoded)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnapshotCompression.class)
+    void roundTripsMissingValues(SnapshotCompression compression) {
+        var values = new double[Measurement.values().length];
+        Arrays.fill(values, Double.NaN);
+        values[Measurement.values().length - 1] = 0.95;
+
+        var readings = List.of(
+                EnergyReading.of(null, null, EnergyReading.NO_TIME, EnergyReading.NO_TIME, values),
+                reading("1L", "Building_L", 1_700_000_000_000L, 1));
+
+        assertEquals(readings, rows(codec.decode(codec.encode(EnergyReadingBatch.of(readings), compression))));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnapshotCompression.class)
+    void roundTripsEmptyBatch(SnapshotCompression compression) {
+        assertEquals(0, codec.decode(codec.encode(EnergyReadingBatch.of(List.of()), compression)).size());
+    }
+
+    @Test
+    void compressionShrinksRepetitiveSnapshots() {
+        var batch = EnergyReadingBatch.of(readings(288));
+        var uncompressed = codec.encode(batch).length;
+
+        assertTrue(codec.encode(batch, SnapshotCompression.LZ4).length < uncompressed);
+        assertTrue(codec.encode(batch, SnapshotCompression.DEFLATE).length < uncompressed);
+    }
+
+    @Test
+    void decodesSnapshotsWrittenWithAnyCompression() {
+        var encoded = codec.encode(EnergyReadingBatch.of(readings(10)), SnapshotCompression.DEFLATE);
+
+        assertEquals(readings(10), rows(codec.decode(encoded)));
+    }
+
+    @Test
+    void rejectsForeignContentAndUnknownVersions() {
+        var encoded = codec.encode(EnergyReadingBatch.of(readings(1)));
+
+        assertFalse(codec.supports("[{\"id\":\"1A\"}]".getBytes()));
+        assertFalse(codec.supports(new byte[]{'P', 'G'}));
+
+        encoded[4] = 99;
+        assertThrows(IllegalStateException.class, () -> codec.decode(encoded));
+    }
+}
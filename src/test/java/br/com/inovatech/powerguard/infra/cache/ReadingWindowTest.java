@@ -0,0 +1,149 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static br.com.inovatech.powerguard.infra.readings.EnergyReadingFixtures.power;
+import static br.com.inovatech.powerguard.infra.readings.EnergyReadingFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReadingWindowTest {
+
+    private static final long HOUR = 3_600_000;
+
+    private static EnergyReading at(String id, long timestamp) {
+        return reading(id, "Building_A", timestamp, 1);
+    }
+
+    /**
+     * Serializa a janela como a lista de IDs em ordem, separados por vírgula.
+     */
+    private static List<String> ids(ReadingWindow window) {
+        var response = window.serialize(ids());
+        return response == null ? List.of() : List.of(new String(response.body(), StandardCharsets.UTF_8).split(","));
+    }
+
+    private static Function<EnergyReadingBatch, byte[]> ids() {
+        return batch -> String.join(",", IntStream.range(0, batch.size()).mapToObj(batch::id).toList())
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void keepsReadingsInChronologicalOrder() {
+        var window = new ReadingWindow(HOUR);
+        var now = System.currentTimeMillis();
+
+        window.add(at("3", now - 1_000));
+        window.add(at("1", now - 3_000));
+        window.add(at("4", now));
+        window.add(at("2", now - 2_000));
+
+        assertEquals(List.of("1", "2", "3", "4"), ids(window));
+    }
+
+    @Test
+    void ignoresRepeatedReadingsAndReadingsWithoutTime() {
+        var window = new ReadingWindow(HOUR);
+        var now = System.currentTimeMillis();
+
+        window.add(at("1", now));
+        window.add(at("1", now - 1_000));
+        window.add(power("2", "Building_A", EnergyReading.NO_TIME, 1, 1));
+
+        assertEquals(List.of("1"), ids(window));
+    }
+
+    @Test
+    void ignoresReadingsAlreadyOutsideTheWindow() {
+        var window = new ReadingWindow(HOUR);
+        var now = System.currentTimeMillis();
+
+        window.add(at("old", now - 2 * HOUR));
+
+        assertNull(window.serialize(ids()));
+    }
+
+    @Test
+    void evictsReadingsThatLeaveTheWindow() throws InterruptedException {
+        var window = new ReadingWindow(1_000);
+        var now = System.currentTimeMillis();
+
+        window.add(at("expiring", now - 900));
+        window.add(at("recent", now + 5_000));
+        Thread.sleep(300);
+
+        assertEquals(List.of("recent"), ids(window));
+
+        window.add(at("expiring", now + 6_000));
+        assertEquals(List.of("recent", "expiring"), ids(window));
+    }
+
+    @Test
+    void keepsOrderAcrossWrapAroundAndGrowth() throws InterruptedException {
+        var window = new ReadingWindow(1_000);
+        var now = System.currentTimeMillis();
+        List<String> expected = new ArrayList<>();
+
+        for (int i = 0; i < 600; i++) {
+            window.add(at("old" + i, now - 900));
+        }
+        Thread.sleep(300);
+        assertNull(window.serialize(ids()));
+
+        for (int i = 0; i < 1_000; i++) {
+            window.add(at("new" + i, now + 10_000 + 2L * i));
+            expected.add("new" + i);
+        }
+        window.add(at("late", now + 10_000 + 1_001));
+        expected.add(501, "late");
+        for (int i = 1_000; i < 1_100; i++) {
+            window.add(at("new" + i, now + 10_000 + 2L * i));
+            expected.add("new" + i);
+        }
+
+        assertEquals(expected, ids(window));
+    }
+
+    @Test
+    void serializesAgainOnlyWhenTheWindowChanges() {
+        var window = new ReadingWindow(HOUR);
+        var now = System.currentTimeMillis();
+        var calls = new AtomicInteger();
+        Function<EnergyReadingBatch, byte[]> serializer = batch -> {
+            calls.incrementAndGet();
+            return ids().apply(batch);
+        };
+
+        window.add(at("1", now));
+        var first = window.serialize(serializer);
+        assertSame(first, window.serialize(serializer));
+        assertEquals(1, calls.get());
+
+        window.add(at("2", now));
+        window.serialize(serializer);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void derivesLastModifiedFromTheReadings() throws InterruptedException {
+        var window = new ReadingWindow(1_000);
+        var now = System.currentTimeMillis();
+
+        window.add(power("1", "Building_A", now - 900, 1, 1));
+        window.add(power("2", "Building_A", now - 500, 1, 1));
+        assertEquals(now - 500, window.serialize(ids()).lastModified());
+
+        Thread.sleep(300);
+        assertEquals(now - 900 + 1_000, window.serialize(ids()).lastModified());
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.inovatech.powerguard.infra.cache;
+
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingBatch;
+import br.com.inovatech.powerguard.infra.readings.Measurement;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static br.com.inovatech.powerguard.infra.readings.EnergyReadingFixtures.power;
+import static br.com.inovatech.powerguard.infra.readings.EnergyReadingFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotMemberCodecTest {
+
+    private final SnapshotMemberCodec codec = new SnapshotMemberCodec();
+
+    @Test
+    void roundTripsAReadingWithEveryMeasurement() {
+        var reading = reading("12345A", "Building_A", 1_700_000_000_000L, 220);
+
+        var encoded = codec.encode(reading);
+
+        assertTrue(codec.supports(encoded));
+        assertEquals(reading, codec.decode(encoded));
+    }
+
+    @Test
+    void roundTripsMissingValuesAndFields() {
+        var values = new double[Measurement.values().length];
+        Arrays.fill(values, Double.NaN);
+        values[Measurement.FATOR_POTENCIA_TOTAL.ordinal()] = 0.92;
+        var reading = EnergyReading.of(null, null, EnergyReading.NO_TIME, EnergyReading.NO_TIME, values);
+
+        assertEquals(reading, codec.decode(codec.encode(reading)));
+    }
+
+    @Test
+    void writesOnlyThePresentValues() {
+        var full = codec.encode(reading("1A", "Building_A", 0, 1));
+        var partial = codec.encode(power("1A", "Building_A", 0, 1, 1));
+
+        assertEquals(Measurement.values().length - 8, (full.length - partial.length) / Double.BYTES);
+    }
+
+    @Test
+    void encodesTheSameReadingToTheSameMember() {
+        var reading = reading("1A", "Building_A", 1_700_000_000_000L, 5);
+
+        assertArrayEquals(codec.encode(reading), codec.encode(reading));
+    }
+
+    @Test
+    void isSmallerThanASingleReadingBatch() {
+        var batchCodec = new BinarySnapshotCodec();
+        var reading = reading("12345A", "Building_A", 1_700_000_000_000L, 220);
+
+        var member = codec.encode(reading);
+        var batch = batchCodec.encode(EnergyReadingBatch.of(List.of(reading)));
+
+        assertTrue(member.length * 2 < batch.length, member.length + " vs " + batch.length);
+    }
+
+    @Test
+    void doesNotClaimOtherFormats() {
+        var batchCodec = new BinarySnapshotCodec();
+
+        assertFalse(codec.supports(batchCodec.encode(EnergyReadingBatch.of(List.of(reading("1A", "Building_A", 0, 1))))));
+        assertFalse(codec.supports("[]".getBytes()));
+        assertFalse(codec.supports(new byte[]{'P', 'G', 'R'}));
+    }
+
+    @Test
+    void rejectsUnknownVersions() {
+        var encoded = codec.encode(reading("1A", "Building_A", 0, 1));
+        encoded[3] = 9;
+
+        assertThrows(IllegalStateException.class, () -> codec.decode(encoded));
+    }
+}
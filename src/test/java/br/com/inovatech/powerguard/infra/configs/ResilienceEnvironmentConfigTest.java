@@ -0,0 +1,58 @@
+package br.com.inovatech.powerguard.infra.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResilienceEnvironmentConfigTest {
+
+    private static ResilienceEnvironmentConfig bind(Map<String, String> properties) {
+        var config = new ResilienceEnvironmentConfig();
+        new Binder(new MapConfigurationPropertySource(properties))
+                .bind("external.api.resilience", Bindable.ofInstance(config));
+        return config;
+    }
+
+    @Test
+    void keepsStandardValuesForFieldsMissingFromDefaults() {
+        var settings = bind(Map.of("external.api.resilience.defaults.max-attempts", "5")).getSettingsOf("Building_A");
+
+        assertEquals(5, settings.getMaxAttempts());
+        assertEquals(Duration.ofSeconds(30), settings.getReadTimeout());
+        assertEquals(0.5, settings.getJitter());
+        assertNull(settings.getHedgeDelay());
+    }
+
+    @Test
+    void mergesBuildingOverridesOverDefaults() {
+        var config = bind(Map.of(
+                "external.api.resilience.defaults.read-timeout", "10s",
+                "external.api.resilience.defaults.max-attempts", "5",
+                "external.api.resilience.defaults.hedge-delay", "2s",
+                "external.api.resilience.buildings.Building_A.max-attempts", "1",
+                "external.api.resilience.buildings.Building_A.hedge-delay", "0s"));
+
+        var settings = config.getSettingsOf("Building_A");
+
+        assertEquals(1, settings.getMaxAttempts());
+        assertEquals(Duration.ZERO, settings.getHedgeDelay());
+        assertEquals(Duration.ofSeconds(10), settings.getReadTimeout());
+        assertEquals(Duration.ofSeconds(60), settings.getRequestTimeout());
+        assertEquals(20, settings.getSlidingWindowSize());
+    }
+
+    @Test
+    void usesDefaultsForBuildingsWithoutOverrides() {
+        var config = bind(Map.of("external.api.resilience.buildings.Building_A.max-attempts", "1"));
+
+        assertSame(config.getDefaults(), config.getSettingsOf("Building_C"));
+    }
+}
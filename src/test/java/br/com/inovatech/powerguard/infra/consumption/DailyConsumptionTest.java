@@ -0,0 +1,127 @@
+package br.com.inovatech.powerguard.infra.consumption;
+
+import br.com.inovatech.powerguard.infra.readings.EnergyReading;
+import br.com.inovatech.powerguard.infra.readings.EnergyReadingFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DailyConsumptionTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long MAX_GAP = 15 * MINUTE;
+    private static final double DELTA = 1e-9;
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+    private static final long MIDNIGHT = ConsumptionPeriod.millisOf(DAY.plusDays(1));
+
+    @Test
+    void integratesPowerWithTheTrapezoidRule() {
+        var start = ConsumptionPeriod.millisOf(DAY) + 60 * MINUTE;
+        var days = DailyConsumption.integrate(List.of(
+                power(start, 10, 4),
+                power(start + 10 * MINUTE, 20, 8)), DAY, DAY, MAX_GAP, 1.0);
+
+        var day = days.get(DAY);
+        assertEquals(2.5, day.getEnergy().get("kwhtotal"), DELTA);
+        assertEquals(2.5, day.getEnergy().get("kwha"), DELTA);
+        assertEquals(1.0, day.getEnergy().get("kvarhtotal"), DELTA);
+        assertEquals(10 * MINUTE, day.getCoveredMillis());
+        assertEquals(0, day.getGapMillis());
+    }
+
+    @Test
+    void splitsIntervalsCrossingMidnightBetweenTheDays() {
+        var days = DailyConsumption.integrate(List.of(
+                power(MIDNIGHT - 10 * MINUTE, 12, 0),
+                power(MIDNIGHT + 5 * MINUTE, 12, 0)), DAY, DAY.plusDays(1), MAX_GAP, 1.0);
+
+        assertEquals(2.0, days.get(DAY).getEnergy().get("kwhtotal"), DELTA);
+        assertEquals(10 * MINUTE, days.get(DAY).getCoveredMillis());
+        assertEquals(1.0, days.get(DAY.plusDays(1)).getEnergy().get("kwhtotal"), DELTA);
+        assertEquals(5 * MINUTE, days.get(DAY.plusDays(1)).getCoveredMillis());
+    }
+
+    @Test
+    void keepsOnlyTheRequestedDays() {
+        var days = DailyConsumption.integrate(List.of(
+                power(MIDNIGHT - 10 * MINUTE, 12, 0),
+                power(MIDNIGHT + 5 * MINUTE, 12, 0)), DAY.plusDays(1), DAY.plusDays(1), MAX_GAP, 1.0);
+
+        assertEquals(List.of(DAY.plusDays(1)), List.copyOf(days.keySet()));
+        assertEquals(5 * MINUTE, days.get(DAY.plusDays(1)).getCoveredMillis());
+    }
+
+    @Test
+    void integratesIntervalsUpToTheMaximumGap() {
+        var start = ConsumptionPeriod.millisOf(DAY);
+        var day = DailyConsumption.integrate(List.of(
+                power(start, 4, 0),
+                power(start + MAX_GAP, 4, 0)), DAY, DAY, MAX_GAP, 1.0).get(DAY);
+
+        assertEquals(1.0, day.getEnergy().get("kwhtotal"), DELTA);
+        assertEquals(MAX_GAP, day.getCoveredMillis());
+        assertEquals(0, day.getGapMillis());
+    }
+
+    @Test
+    void countsIntervalsLongerThanTheMaximumGapAsGaps() {
+        var start = ConsumptionPeriod.millisOf(DAY);
+        var day = DailyConsumption.integrate(List.of(
+                power(start, 4, 0),
+                power(start + MAX_GAP + 1, 4, 0),
+                power(start + MAX_GAP + 1 + 5 * MINUTE, 4, 0)), DAY, DAY, MAX_GAP, 1.0).get(DAY);
+
+        assertEquals(MAX_GAP + 1, day.getGapMillis());
+        assertEquals(5 * MINUTE, day.getCoveredMillis());
+        assertEquals(4.0 / 12, day.getEnergy().get("kwhtotal"), DELTA);
+    }
+
+    @Test
+    void splitsGapsAcrossEveryDayTheyCross() {
+        var last = DAY.plusDays(2);
+        var days = DailyConsumption.integrate(List.of(
+                power(MIDNIGHT - 30 * MINUTE, 4, 0),
+                power(ConsumptionPeriod.millisOf(last) + 30 * MINUTE, 4, 0)), DAY, last, MAX_GAP, 1.0);
+
+        assertEquals(30 * MINUTE, days.get(DAY).getGapMillis());
+        assertEquals(ConsumptionPeriod.millisOf(last) - MIDNIGHT, days.get(DAY.plusDays(1)).getGapMillis());
+        assertEquals(30 * MINUTE, days.get(last).getGapMillis());
+        days.values().forEach(day -> {
+            assertEquals(0, day.getCoveredMillis());
+            assertTrue(day.getEnergy().isEmpty());
+        });
+    }
+
+    @Test
+    void ignoresRepeatedAndMissingTimestamps() {
+        var start = ConsumptionPeriod.millisOf(DAY);
+        var day = DailyConsumption.integrate(List.of(
+                power(start, 6, 0),
+                power(EnergyReading.NO_TIME, 1000, 0),
+                power(start, 1000, 0),
+                power(start + 10 * MINUTE, 6, 0)), DAY, DAY, MAX_GAP, 1.0).get(DAY);
+
+        assertEquals(1.0, day.getEnergy().get("kwhtotal"), DELTA);
+        assertEquals(10 * MINUTE, day.getCoveredMillis());
+    }
+
+    @Test
+    void skipsChannelsWithoutValuesAndAppliesTheUnitFactor() {
+        var start = ConsumptionPeriod.millisOf(DAY);
+        var day = DailyConsumption.integrate(List.of(
+                power(start, 6000, Double.NaN),
+                power(start + 10 * MINUTE, 6000, 3000)), DAY, DAY, MAX_GAP, 0.001).get(DAY);
+
+        assertEquals(1.0, day.getEnergy().get("kwhtotal"), DELTA);
+        assertTrue(day.getEnergy().keySet().stream().noneMatch(field -> field.startsWith("kvarh")));
+    }
+
+    private static EnergyReading power(long timestamp, double active, double reactive) {
+        return EnergyReadingFixtures.power("1A", "Building_A", timestamp, active, reactive);
+    }
+}
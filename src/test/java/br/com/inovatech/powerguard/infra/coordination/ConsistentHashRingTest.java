@@ -0,0 +1,73 @@
+package br.com.inovatech.powerguard.infra.coordination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int VIRTUAL_NODES = 64;
+
+    private static final List<String> KEYS = IntStream.range(0, 1_000).mapToObj(i -> "Building_" + i).toList();
+
+    private static Map<String, String> owners(ConsistentHashRing ring) {
+        var owners = new HashMap<String, String>();
+        KEYS.forEach(key -> owners.put(key, ring.ownerOf(key)));
+        return owners;
+    }
+
+    @Test
+    void hasNoOwnerWithoutMembers() {
+        assertNull(new ConsistentHashRing(List.of(), VIRTUAL_NODES).ownerOf("Building_A"));
+    }
+
+    @Test
+    void dependsOnlyOnTheSetOfMembers() {
+        var ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), VIRTUAL_NODES);
+        var shuffled = new ConsistentHashRing(List.of("node-3", "node-1", "node-2", "node-1"), VIRTUAL_NODES);
+
+        assertEquals(List.of("node-1", "node-2", "node-3"), shuffled.getMembers());
+        assertEquals(owners(ring), owners(shuffled));
+    }
+
+    @Test
+    void spreadsKeysAcrossMembers() {
+        var members = List.of("node-1", "node-2", "node-3", "node-4");
+        var counts = new HashMap<String, Integer>();
+
+        owners(new ConsistentHashRing(members, VIRTUAL_NODES)).values().forEach(owner -> counts.merge(owner, 1, Integer::sum));
+
+        assertEquals(members.size(), counts.size());
+        counts.forEach((member, count) ->
+                assertTrue(count > 150 && count < 350, member + " owns " + count + " of " + KEYS.size() + " keys"));
+    }
+
+    @Test
+    void movesOnlyKeysOfTheLeavingMember() {
+        var before = owners(new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), VIRTUAL_NODES));
+        var after = owners(new ConsistentHashRing(List.of("node-1", "node-3"), VIRTUAL_NODES));
+
+        KEYS.forEach(key -> {
+            if (!before.get(key).equals("node-2")) {
+                assertEquals(before.get(key), after.get(key), key);
+            }
+        });
+    }
+
+    @Test
+    void movesKeysOnlyToTheJoiningMember() {
+        var before = owners(new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), VIRTUAL_NODES));
+        var after = owners(new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), VIRTUAL_NODES));
+        var moved = KEYS.stream().filter(key -> !before.get(key).equals(after.get(key))).toList();
+
+        moved.forEach(key -> assertEquals("node-4", after.get(key), key));
+        assertTrue(moved.size() > 150 && moved.size() < 350, moved.size() + " of " + KEYS.size() + " keys moved");
+    }
+}
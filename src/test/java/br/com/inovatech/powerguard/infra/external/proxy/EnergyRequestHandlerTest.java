@@ -0,0 +1,67 @@
+package br.com.inovatech.powerguard.infra.external.proxy;
+
+import br.com.inovatech.powerguard.infra.configs.ResilienceEnvironmentConfig;
+import br.com.inovatech.powerguard.infra.exceptions.ExternalApiResponseException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.test.StepVerifier;
+
+import java.util.function.Function;
+
+class EnergyRequestHandlerTest {
+
+    private static final String FIRST_PAGE = "{\"count\": 20, \"results\": [{\"id\": \"1\"}]}";
+
+    /**
+     * Cria o handler com um WebClient que responde com o corpo retornado para cada página (null na primeira).
+     */
+    private static EnergyRequestHandler handler(Function<String, String> bodyOfPage) {
+        var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var decoder = new EnergyResultsDecoder();
+        ReflectionTestUtils.setField(decoder, "objectMapper", objectMapper);
+
+        var webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(bodyOfPage.apply(request.url().getQuery()))
+                        .build()))
+                .build();
+
+        var handler = new EnergyRequestHandler();
+        ReflectionTestUtils.setField(handler, "webClient", webClient);
+        ReflectionTestUtils.setField(handler, "httpClient", HttpClient.create());
+        ReflectionTestUtils.setField(handler, "resilienceConfig", new ResilienceEnvironmentConfig());
+        ReflectionTestUtils.setField(handler, "energyResultsDecoder", decoder);
+        ReflectionTestUtils.setField(handler, "HOST", "api.test");
+        ReflectionTestUtils.setField(handler, "PORT", "443");
+        ReflectionTestUtils.setField(handler, "SCHEMA", "https");
+        ReflectionTestUtils.setField(handler, "PAGE_SIZE", 10);
+        ReflectionTestUtils.setField(handler, "MAX_PAGES", 0);
+        return handler;
+    }
+
+    @Test
+    void mapsMalformedFirstPagesToResponseExceptions() {
+        var handler = handler(query -> "{\"count\": ");
+
+        StepVerifier.create(handler.getEnergyData("Building_A", "/energy", 2, energy -> false))
+                .verifyError(ExternalApiResponseException.class);
+    }
+
+    @Test
+    void mapsMalformedStreamedPagesToResponseExceptions() {
+        var handler = handler(query -> query == null ? FIRST_PAGE : "{\"results\": [{\"id\": \"2\"}, {\"id\": ]}");
+
+        StepVerifier.create(handler.getEnergyData("Building_A", "/energy", 1, energy -> false))
+                .thenConsumeWhile(energy -> true)
+                .verifyError(ExternalApiResponseException.class);
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.inovatech.powerguard.infra.external.proxy;
+
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EnergyResultsDecoderTest {
+
+    private static final String PAGE = """
+            {
+              "count": 3,
+              "meta": { "results": [ { "id": "ignored" } ] },
+              "results": [
+                { "id": "1", "building": "Prédio São João", "tensaoa": 220.5, "created_at": "2024-05-01T10:00:00Z",
+                  "extra": { "nested": [ { "id": "nested" } ], "results": [ 1, 2 ] } },
+                { "id": "2", "potativatotal": -1.25e3, "fatorpotenciatotal": null },
+                { "id": "3" }
+              ],
+              "next": { "results": [ { "id": "ignored" } ] }
+            }
+            """;
+
+    private final EnergyResultsDecoder decoder = decoder();
+
+    private static EnergyResultsDecoder decoder() {
+        var decoder = new EnergyResultsDecoder();
+        ReflectionTestUtils.setField(decoder, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        return decoder;
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int size) {
+        var bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + size))));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 64, Integer.MAX_VALUE})
+    void decodesOnlyTheRootResultsRegardlessOfChunking(int size) {
+        var energies = decoder.decode(chunks(PAGE, size)).collectList().block();
+
+        assertEquals(List.of("1", "2", "3"), energies.stream().map(EnergyDTO::getId).toList());
+        assertEquals("Prédio São João", energies.get(0).getBuilding());
+        assertEquals(220.5, energies.get(0).getTensaoa());
+        assertEquals(1_714_557_600_000L, energies.get(0).getCreatedAt().getTime());
+        assertEquals(-1250.0, energies.get(1).getPotativatotal());
+    }
+
+    @Test
+    void emitsEachResultBeforeTheBodyEnds() {
+        var firstObject = PAGE.substring(0, PAGE.indexOf("{ \"id\": \"2\""));
+
+        StepVerifier.create(decoder.decode(chunks(firstObject, 7).concatWith(Flux.never())))
+                .assertNext(energy -> assertEquals("1", energy.getId()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void decodesPagesWithoutResults() {
+        StepVerifier.create(decoder.decode(chunks("{\"count\": 0, \"results\": []}", 7)))
+                .verifyComplete();
+    }
+
+    @Test
+    void failsOnMalformedBodies() {
+        StepVerifier.create(decoder.decode(chunks("{\"results\": [{\"id\": \"1\"}, {\"id\": ]}", 7)))
+                .assertNext(energy -> assertEquals("1", energy.getId()))
+                .verifyError(UncheckedIOException.class);
+    }
+
+    @Test
+    void failsOnTruncatedBodies() {
+        StepVerifier.create(decoder.decode(chunks("{\"results\": [{\"id\": \"1\"}, {\"id\": \"2\"", 7)))
+                .assertNext(energy -> assertEquals("1", energy.getId()))
+                .verifyError(UncheckedIOException.class);
+    }
+}
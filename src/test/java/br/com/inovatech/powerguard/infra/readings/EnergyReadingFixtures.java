@@ -0,0 +1,39 @@
+package br.com.inovatech.powerguard.infra.readings;
+
+import java.util.Arrays;
+
+/**
+ * Leituras de energia usadas nos testes.
+ */
+public final class EnergyReadingFixtures {
+
+    private EnergyReadingFixtures() {
+    }
+
+    /**
+     * Cria uma leitura com todas as grandezas preenchidas a partir de um valor base.
+     */
+    public static EnergyReading reading(String id, String building, long timestamp, double base) {
+        var values = new double[Measurement.values().length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = base + i / 10.0;
+        }
+        return EnergyReading.of(id, building, timestamp, timestamp + 1_000, values);
+    }
+
+    /**
+     * Cria uma leitura com a mesma potência ativa e reativa em todas as fases.
+     */
+    public static EnergyReading power(String id, String building, long timestamp, double active, double reactive) {
+        var values = new double[Measurement.values().length];
+        Arrays.fill(values, Double.NaN);
+        for (var measurement : Measurement.values()) {
+            if (measurement.getField().startsWith("potativa")) {
+                values[measurement.ordinal()] = active;
+            } else if (measurement.getField().startsWith("potreativa")) {
+                values[measurement.ordinal()] = reactive;
+            }
+        }
+        return EnergyReading.of(id, building, timestamp, timestamp, values);
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.inovatech.powerguard.infra.utils;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.inovatech.powerguard.domains.EnergyDomainFixtures.energy;
+
+/**
+ * Compara o Mapper com o ModelMapper, usado anteriormente, na conversão de EnergyDomain
+ * para EnergyDTO, com um único objeto e com o lote de um dia de leituras.
+ *
+ * Execução: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=MapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final Type ENERGY_DTO_LIST = new org.modelmapper.TypeToken<List<EnergyDTO>>() {}.getType();
+
+    @Param({"1", "288"})
+    private int size;
+
+    private ModelMapper modelMapper;
+
+    private List<EnergyDomain> energies;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        energies = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            energies.add(energy(i));
+        }
+    }
+
+    @Benchmark
+    public List<EnergyDTO> mapper() {
+        return Mapper.parseListObject(energies, EnergyDTO.class);
+    }
+
+    @Benchmark
+    public List<EnergyDTO> modelMapper() {
+        return modelMapper.map(energies, ENERGY_DTO_LIST);
+    }
+}
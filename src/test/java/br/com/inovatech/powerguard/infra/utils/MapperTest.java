@@ -0,0 +1,55 @@
+package br.com.inovatech.powerguard.infra.utils;
+
+import br.com.inovatech.powerguard.dtos.EnergyDTO;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.List;
+
+import static br.com.inovatech.powerguard.domains.EnergyDomainFixtures.energy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MapperTest {
+
+    @Test
+    void copiesTheSamePropertiesAsModelMapper() {
+        var energy = energy(7);
+
+        assertEquals(new ModelMapper().map(energy, EnergyDTO.class), Mapper.parseObject(energy, EnergyDTO.class));
+    }
+
+    @Test
+    void copiesDatesInsteadOfSharingThem() {
+        var energy = energy(1);
+        var dto = Mapper.parseObject(energy, EnergyDTO.class);
+
+        assertEquals(energy.getTimestamp(), dto.getTimestamp());
+        assertNotSame(energy.getTimestamp(), dto.getTimestamp());
+        assertNotSame(energy.getCreatedAt(), dto.getCreatedAt());
+
+        dto.getTimestamp().setTime(0);
+        assertEquals(energy(1).getTimestamp(), energy.getTimestamp());
+    }
+
+    @Test
+    void mapsListsAndKeepsNullProperties() {
+        var energy = energy(2);
+        energy.setTensaoa(null);
+        energy.setCreatedAt(null);
+
+        var dtos = Mapper.parseListObject(List.of(energy, energy(3)), EnergyDTO.class);
+
+        assertEquals(2, dtos.size());
+        assertNull(dtos.get(0).getTensaoa());
+        assertNull(dtos.get(0).getCreatedAt());
+        assertEquals("3A", dtos.get(1).getId());
+    }
+
+    @Test
+    void rejectsNullSource() {
+        assertThrows(IllegalArgumentException.class, () -> Mapper.parseObject(null, EnergyDTO.class));
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.inovatech.powerguard.infra.utils;
+
+import br.com.inovatech.powerguard.infra.exceptions.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageUtilsTest {
+
+    private static final String SECRET = "cursor-secret";
+
+    @Test
+    void decodesTheEncodedPosition() {
+        var createdAt = new Date(1_700_000_123_456L);
+        var cursor = PageUtils.encodeCursor(createdAt, "12345A", SECRET);
+
+        assertEquals(new PageUtils.Cursor(createdAt, "12345A"), PageUtils.decodeCursor(cursor, SECRET));
+    }
+
+    @Test
+    void keepsIdsContainingSeparators() {
+        var cursor = PageUtils.encodeCursor(new Date(0), "a:b.c", SECRET);
+
+        assertEquals("a:b.c", PageUtils.decodeCursor(cursor, SECRET).id());
+    }
+
+    @Test
+    void encodesMissingCreationDate() {
+        var cursor = PageUtils.encodeCursor(null, "1A", SECRET);
+
+        assertEquals(new PageUtils.Cursor(null, "1A"), PageUtils.decodeCursor(cursor, SECRET));
+    }
+
+    @Test
+    void producesUrlSafeCursors() {
+        var cursor = PageUtils.encodeCursor(new Date(), "??>>//++", SECRET);
+
+        assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", ".", "not a cursor", "MTIzOjFB", "MTIzOjFB.", "%%%.%%%", "MTIzOjFB.AAAAAAAAAAAAAAAA"})
+    void rejectsMalformedCursors(String cursor) {
+        assertThrows(InvalidCursorException.class, () -> PageUtils.decodeCursor(cursor, SECRET));
+    }
+
+    @Test
+    void rejectsCursorsWithAlteredPosition() {
+        var cursor = PageUtils.encodeCursor(new Date(1_000), "1A", SECRET);
+        var signature = cursor.substring(cursor.indexOf('.'));
+        var forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("999999:1A".getBytes(StandardCharsets.UTF_8)) + signature;
+
+        assertThrows(InvalidCursorException.class, () -> PageUtils.decodeCursor(forged, SECRET));
+    }
+
+    @Test
+    void rejectsCursorsSignedWithAnotherKey() {
+        var cursor = PageUtils.encodeCursor(new Date(1_000), "1A", "another-secret");
+
+        assertThrows(InvalidCursorException.class, () -> PageUtils.decodeCursor(cursor, SECRET));
+    }
+
+    @Test
+    void computesTheLastPage() {
+        assertEquals(3, PageUtils.getLastPage(25, 10));
+        assertEquals(2, PageUtils.getLastPage(20, 10));
+        assertEquals(0, PageUtils.getLastPage(0, 10));
+        assertNull(PageUtils.getLastPage(-1, 10));
+        assertNull(PageUtils.getLastPage(null, 10));
+    }
+}
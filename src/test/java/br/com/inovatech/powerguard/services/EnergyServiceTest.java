@@ -0,0 +1,115 @@
+package br.com.inovatech.powerguard.services;
+
+import br.com.inovatech.powerguard.domains.EnergyDomain;
+import br.com.inovatech.powerguard.dtos.EnergyPageDTO;
+import br.com.inovatech.powerguard.repositories.EnergyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EnergyServiceTest {
+
+    // Ordem do MongoDB: createdAt nulo antes de qualquer data, depois o ID.
+    private static final Comparator<EnergyDomain> ASC = Comparator
+            .comparing(EnergyDomain::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(EnergyDomain::getId);
+
+    private static final List<EnergyDomain> ENERGIES = List.of(
+            energy("1A", null), energy("2A", null), energy("3A", null), energy("4A", null), energy("5A", null),
+            energy("6A", 1_000L), energy("7A", 1_000L), energy("8A", 2_000L));
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private static EnergyDomain energy(String id, Long createdAt) {
+        return EnergyDomain.builder()
+                .id(id)
+                .building("Building_A")
+                .createdAt(createdAt == null ? null : new Date(createdAt))
+                .build();
+    }
+
+    /**
+     * Emula no repositório as consultas de EnergyRepository sobre ENERGIES, com a ordenação do MongoDB.
+     */
+    private static EnergyRepository repository() {
+        var repository = mock(EnergyRepository.class);
+
+        when(repository.findAll(any(Pageable.class))).thenAnswer(call -> page(call.getArgument(0), energy -> true));
+        when(repository.findAfterCursor(any(Date.class), anyString(), any(Pageable.class))).thenAnswer(call -> {
+            Date createdAt = call.getArgument(0);
+            String id = call.getArgument(1);
+            return page(call.getArgument(2), energy -> energy.getCreatedAt() != null
+                    && (energy.getCreatedAt().after(createdAt)
+                    || energy.getCreatedAt().equals(createdAt) && energy.getId().compareTo(id) > 0));
+        });
+        when(repository.findAfterNullCursor(anyString(), any(Pageable.class))).thenAnswer(call -> {
+            String id = call.getArgument(0);
+            return page(call.getArgument(1), energy -> energy.getCreatedAt() != null || energy.getId().compareTo(id) > 0);
+        });
+        when(repository.findBeforeCursor(any(Date.class), anyString(), any(Pageable.class))).thenAnswer(call -> {
+            Date createdAt = call.getArgument(0);
+            String id = call.getArgument(1);
+            return page(call.getArgument(2), energy -> energy.getCreatedAt() == null
+                    || energy.getCreatedAt().before(createdAt)
+                    || energy.getCreatedAt().equals(createdAt) && energy.getId().compareTo(id) < 0);
+        });
+        when(repository.findBeforeNullCursor(anyString(), any(Pageable.class))).thenAnswer(call -> {
+            String id = call.getArgument(0);
+            return page(call.getArgument(1), energy -> energy.getCreatedAt() == null && energy.getId().compareTo(id) < 0);
+        });
+
+        return repository;
+    }
+
+    private static Flux<EnergyDomain> page(Pageable pageable, Predicate<EnergyDomain> filter) {
+        var ascending = pageable.getSort().getOrderFor("createdAt").isAscending();
+
+        return Flux.fromStream(ENERGIES.stream()
+                .filter(filter)
+                .sorted(ascending ? ASC : ASC.reversed())
+                .limit(pageable.getPageSize()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ASC", "DESC"})
+    void pagesAcrossReadingsWithoutCreationDate(String direction) throws Exception {
+        var service = new EnergyService();
+        ReflectionTestUtils.setField(service, "energyRepository", repository());
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "CURSOR_KEY", "cursor-secret");
+
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            var response = service.findEnergyDataHistoryByCursor(cursor, 3, direction).block();
+
+            if (response.getBody() == null) {
+                break;
+            }
+
+            var page = objectMapper.readValue(response.getBody(), EnergyPageDTO.class);
+            page.getContent().forEach(energy -> ids.add(energy.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        var expected = ENERGIES.stream().sorted(direction.equals("ASC") ? ASC : ASC.reversed()).map(EnergyDomain::getId).toList();
+        assertEquals(expected, ids);
+    }
+}